@@ -0,0 +1,376 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Static bounding-volume hierarchy over a fixed set of rectangles and convex
+ * polygons. Polygon leaves hold the polygon's bounds; queries reaching one run
+ * the exact test (ConvexShape.overlapsRectangle, sweepRectangle, contains).
+ * An alternative to the tile grid for large or irregular shapes (e.g. the
+ * 48x68 "Grass&Rocks" objects), which a tile-sized grid has to repeat in many
+ * buckets. Queries descend only into boxes that can contain an answer, so they
+ * stay logarithmic however the shapes are sized.
+ *
+ * Built bottom-up: leaves are ordered along a Morton (Z-order) curve of their
+ * centres, then neighbouring nodes are paired level by level up to the root.
+ * Nodes are stored flat: leaves first (in Morton order), internal nodes after
+ * them, root last.
+ */
+public class AabbTree {
+
+    private static final int NONE = -1;
+
+    private final Array<Rectangle> rects;
+    private final Array<ConvexShape> polygons;
+
+    private final float[] minX;
+    private final float[] minY;
+    private final float[] maxX;
+    private final float[] maxY;
+
+    // Children of internal nodes; NONE for leaves
+    private final int[] left;
+    private final int[] right;
+
+    // Item index of each leaf: rectangles first, then polygons (rects.size + polygon index)
+    private final int[] item;
+
+    private final int root;
+    private final int depth;
+    private final int nodeCount;
+
+    // Per-thread traversal stack, so queries stay safe to call concurrently
+    private final ThreadLocal<int[]> stacks;
+
+    /**
+     * Build the tree over a snapshot of the rectangles (e.g. CollisionLayer.getCollisionRects()).
+     * Query results are indices into this array.
+     */
+    public AabbTree(Array<Rectangle> rects) {
+        this(rects, new Array<ConvexShape>());
+    }
+
+    /**
+     * Build the tree over rectangles and convex polygons (see CollisionLayer.buildAabbTree).
+     * Query results are item indices: below rects.size a rectangle, otherwise
+     * the polygon at index - rects.size.
+     */
+    public AabbTree(Array<Rectangle> rects, Array<ConvexShape> polygons) {
+        this.rects = rects;
+        this.polygons = polygons;
+        int leafCount = rects.size + polygons.size;
+        int nodeCapacity = Math.max(2 * leafCount - 1, 0);
+        minX = new float[nodeCapacity];
+        minY = new float[nodeCapacity];
+        maxX = new float[nodeCapacity];
+        maxY = new float[nodeCapacity];
+        left = new int[nodeCapacity];
+        right = new int[nodeCapacity];
+        item = new int[nodeCapacity];
+
+        if (leafCount == 0) {
+            root = NONE;
+            depth = 0;
+            nodeCount = 0;
+            stacks = ThreadLocal.withInitial(() -> new int[1]);
+            return;
+        }
+
+        // Item bounds, placed into the leaf slots below
+        float[] itemMinX = new float[leafCount];
+        float[] itemMinY = new float[leafCount];
+        float[] itemMaxX = new float[leafCount];
+        float[] itemMaxY = new float[leafCount];
+        for (int i = 0; i < rects.size; i++) {
+            Rectangle rect = rects.get(i);
+            itemMinX[i] = rect.x;
+            itemMinY[i] = rect.y;
+            itemMaxX[i] = rect.x + rect.width;
+            itemMaxY[i] = rect.y + rect.height;
+        }
+        for (int i = 0; i < polygons.size; i++) {
+            ConvexShape shape = polygons.get(i);
+            int index = rects.size + i;
+            itemMinX[index] = shape.getMinX();
+            itemMinY[index] = shape.getMinY();
+            itemMaxX[index] = shape.getMaxX();
+            itemMaxY[index] = shape.getMaxY();
+        }
+
+        // Leaves in Morton order of their centres, so spatial neighbours end up adjacent
+        long[] order = mortonOrder(itemMinX, itemMinY, itemMaxX, itemMaxY);
+        for (int i = 0; i < leafCount; i++) {
+            int index = (int) order[i];
+            minX[i] = itemMinX[index];
+            minY[i] = itemMinY[index];
+            maxX[i] = itemMaxX[index];
+            maxY[i] = itemMaxY[index];
+            left[i] = NONE;
+            right[i] = NONE;
+            item[i] = index;
+        }
+
+        // Pair neighbours level by level; an odd node out moves up a level as it is
+        int[] level = new int[leafCount];
+        for (int i = 0; i < leafCount; i++) {
+            level[i] = i;
+        }
+        int count = leafCount;
+        int next = leafCount;
+        int levels = 1;
+        while (count > 1) {
+            int kept = 0;
+            for (int i = 0; i < count; i += 2) {
+                if (i + 1 == count) {
+                    level[kept++] = level[i];
+                } else {
+                    joinNodes(level[i], level[i + 1], next);
+                    level[kept++] = next++;
+                }
+            }
+            count = kept;
+            levels++;
+        }
+        root = level[0];
+        depth = levels;
+        nodeCount = next;
+
+        final int stackSize = depth + 1;
+        stacks = ThreadLocal.withInitial(() -> new int[stackSize]);
+    }
+
+    private static long[] mortonOrder(float[] itemMinX, float[] itemMinY, float[] itemMaxX, float[] itemMaxY) {
+        int count = itemMinX.length;
+        float boundsMinX = Float.MAX_VALUE;
+        float boundsMinY = Float.MAX_VALUE;
+        float boundsMaxX = -Float.MAX_VALUE;
+        float boundsMaxY = -Float.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            boundsMinX = Math.min(boundsMinX, (itemMinX[i] + itemMaxX[i]) / 2);
+            boundsMinY = Math.min(boundsMinY, (itemMinY[i] + itemMaxY[i]) / 2);
+            boundsMaxX = Math.max(boundsMaxX, (itemMinX[i] + itemMaxX[i]) / 2);
+            boundsMaxY = Math.max(boundsMaxY, (itemMinY[i] + itemMaxY[i]) / 2);
+        }
+        float scaleX = boundsMaxX > boundsMinX ? 65535f / (boundsMaxX - boundsMinX) : 0;
+        float scaleY = boundsMaxY > boundsMinY ? 65535f / (boundsMaxY - boundsMinY) : 0;
+
+        // Code in the high 32 bits, item index in the low ones
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            int qx = (int) (((itemMinX[i] + itemMaxX[i]) / 2 - boundsMinX) * scaleX);
+            int qy = (int) (((itemMinY[i] + itemMaxY[i]) / 2 - boundsMinY) * scaleY);
+            long code = (spreadBits(qx) | (spreadBits(qy) << 1)) & 0xffffffffL;
+            order[i] = (code << 32) | i;
+        }
+        Arrays.sort(order);
+        return order;
+    }
+
+    /**
+     * Spread the low 16 bits of a value to the even bit positions
+     */
+    private static int spreadBits(int value) {
+        value &= 0xffff;
+        value = (value | (value << 8)) & 0x00ff00ff;
+        value = (value | (value << 4)) & 0x0f0f0f0f;
+        value = (value | (value << 2)) & 0x33333333;
+        value = (value | (value << 1)) & 0x55555555;
+        return value;
+    }
+
+    private void joinNodes(int a, int b, int to) {
+        minX[to] = Math.min(minX[a], minX[b]);
+        minY[to] = Math.min(minY[a], minY[b]);
+        maxX[to] = Math.max(maxX[a], maxX[b]);
+        maxY[to] = Math.max(maxY[a], maxY[b]);
+        left[to] = a;
+        right[to] = b;
+        item[to] = NONE;
+    }
+
+    /**
+     * True if any shape overlaps the box (touching does not count, as in Rectangle.overlaps)
+     */
+    public boolean overlaps(float x, float y, float width, float height) {
+        if (root == NONE) return false;
+        float queryMaxX = x + width;
+        float queryMaxY = y + height;
+
+        int[] stack = stacks.get();
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            if (x >= maxX[node] || queryMaxX <= minX[node] || y >= maxY[node] || queryMaxY <= minY[node]) {
+                continue;
+            }
+            if (left[node] == NONE) {
+                if (overlapsItem(item[node], x, y, width, height)) {
+                    return true;
+                }
+                continue;
+            }
+            stack[top++] = left[node];
+            stack[top++] = right[node];
+        }
+        return false;
+    }
+
+    /**
+     * Collect the item indices of all shapes overlapping the box
+     *
+     * @return Number of indices added to the output
+     */
+    public int query(float x, float y, float width, float height, IntArray out) {
+        if (root == NONE) return 0;
+        float queryMaxX = x + width;
+        float queryMaxY = y + height;
+        int found = 0;
+
+        int[] stack = stacks.get();
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            if (x >= maxX[node] || queryMaxX <= minX[node] || y >= maxY[node] || queryMaxY <= minY[node]) {
+                continue;
+            }
+            if (left[node] == NONE) {
+                if (overlapsItem(item[node], x, y, width, height)) {
+                    out.add(item[node]);
+                    found++;
+                }
+                continue;
+            }
+            stack[top++] = left[node];
+            stack[top++] = right[node];
+        }
+        return found;
+    }
+
+    /**
+     * True if a point lies inside or on the edge of any shape
+     */
+    public boolean contains(float px, float py) {
+        if (root == NONE) return false;
+
+        int[] stack = stacks.get();
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            if (px < minX[node] || px > maxX[node] || py < minY[node] || py > maxY[node]) {
+                continue;
+            }
+            if (left[node] == NONE) {
+                if (item[node] < rects.size || getPolygon(item[node]).contains(px, py)) {
+                    return true;
+                }
+                continue;
+            }
+            stack[top++] = left[node];
+            stack[top++] = right[node];
+        }
+        return false;
+    }
+
+    /**
+     * Cast a ray from (x0, y0) to (x1, y1) and report the first shape hit,
+     * skipping subtrees whose box is entered later than the best hit so far.
+     * Shapes containing the start point are ignored, as in CollisionLayer.raycast.
+     *
+     * @return true on a hit; time is the fraction of the segment
+     */
+    public boolean raycast(float x0, float y0, float x1, float y1, SweepResult result) {
+        result.reset();
+        if (root == NONE) return false;
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        float inverseX = 1f / dx;
+        float inverseY = 1f / dy;
+
+        int[] stack = stacks.get();
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!rayEntersBefore(node, x0, y0, inverseX, inverseY, result.time)) {
+                continue;
+            }
+            if (left[node] == NONE) {
+                if (item[node] < rects.size) {
+                    SweptAxis.sweepBox(x0, y0, 0, 0, dx, dy,
+                        minX[node], minY[node], maxX[node], maxY[node], result);
+                } else {
+                    getPolygon(item[node]).sweepRectangle(x0, y0, 0, 0, dx, dy, result);
+                }
+                continue;
+            }
+            stack[top++] = left[node];
+            stack[top++] = right[node];
+        }
+        return result.hit;
+    }
+
+    /**
+     * Exact test of one leaf item against a box whose bounds already overlap the leaf's
+     */
+    private boolean overlapsItem(int index, float x, float y, float width, float height) {
+        return index < rects.size || getPolygon(index).overlapsRectangle(x, y, width, height);
+    }
+
+    /**
+     * Polygon of an item index at or above getRects().size
+     */
+    public ConvexShape getPolygon(int index) {
+        return polygons.get(index - rects.size);
+    }
+
+    /**
+     * Slab test: does the ray reach the node's box no later than maxTime?
+     */
+    private boolean rayEntersBefore(int node, float x0, float y0, float inverseX, float inverseY, float maxTime) {
+        float enter = 0;
+        float exit = maxTime;
+
+        if (Float.isInfinite(inverseX)) {
+            if (x0 < minX[node] || x0 > maxX[node]) return false;
+        } else {
+            float t0 = (minX[node] - x0) * inverseX;
+            float t1 = (maxX[node] - x0) * inverseX;
+            enter = Math.max(enter, Math.min(t0, t1));
+            exit = Math.min(exit, Math.max(t0, t1));
+        }
+
+        if (Float.isInfinite(inverseY)) {
+            if (y0 < minY[node] || y0 > maxY[node]) return false;
+        } else {
+            float t0 = (minY[node] - y0) * inverseY;
+            float t1 = (maxY[node] - y0) * inverseY;
+            enter = Math.max(enter, Math.min(t0, t1));
+            exit = Math.min(exit, Math.max(t0, t1));
+        }
+        return enter <= exit;
+    }
+
+    // Getters
+    public Array<Rectangle> getRects() {
+        return rects;
+    }
+
+    public Array<ConvexShape> getPolygons() {
+        return polygons;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+}
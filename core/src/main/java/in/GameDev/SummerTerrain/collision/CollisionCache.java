@@ -0,0 +1,250 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Binary cache of the finished collision shapes of a map, stored per chunk.
+ * The cache file is keyed by a hash of the TMX file, every external tileset it
+ * references, the chunk size and the collision layer names, so any edit to the
+ * map produces a new key; files of other keys are deleted after each successful
+ * write. Files are written under a temporary name and renamed into place, so a
+ * crash mid-write never leaves a truncated cache behind. Reading copies the whole
+ * file into memory once and closes it, so it never holds a handle that would
+ * block replacing or deleting the file later.
+ *
+ * Layout (big-endian):
+ *   int magic, int version, long key, int chunkCount, then per chunk:
+ *     int rectCount, rectCount * (minX, minY, maxX, maxY), rectCount * int category,
+ *     int polygonCount, polygonCount * (int category, int floatCount, floatCount * float)
+ */
+public class CollisionCache {
+
+    private static final int MAGIC = 0x434F4C4C; // "COLL"
+
+    // Bump whenever the layout or the way shapes are built changes
+    private static final int FORMAT_VERSION = 5;
+
+    private static final Pattern TILESET_SOURCE = Pattern.compile("<tileset[^>]*\\ssource=\"([^\"]+)\"");
+
+    private final FileHandle directory;
+    private final FileHandle mapFile;
+
+    /**
+     * @param directory Where cache files are written
+     * @param mapFile   The TMX file the collision layer is built from
+     */
+    public CollisionCache(FileHandle directory, FileHandle mapFile) {
+        this.directory = directory;
+        this.mapFile = mapFile;
+    }
+
+    /**
+     * Receives the shapes of one cached chunk; rects are packed minX, minY, maxX, maxY
+     */
+    public interface ChunkLoader {
+        void load(int chunkIndex, float[] rects, int[] rectCategories, Array<ConvexShape> polygons);
+    }
+
+    /**
+     * Hash the map content, chunk size and layer names into the cache key
+     */
+    public long computeKey(int chunkSize, String... layerNames) {
+        long hash = 0xcbf29ce484222325L;
+        hash = hash(hash, mapFile.readBytes());
+
+        Matcher matcher = TILESET_SOURCE.matcher(mapFile.readString("UTF-8"));
+        while (matcher.find()) {
+            FileHandle tileset = mapFile.parent().child(matcher.group(1));
+            if (tileset.exists()) {
+                hash = hash(hash, tileset.readBytes());
+            }
+        }
+
+        for (String layerName : layerNames) {
+            hash = hash(hash, layerName.getBytes(StandardCharsets.UTF_8));
+        }
+        return hash(hash, new byte[]{FORMAT_VERSION, (byte) chunkSize, (byte) (chunkSize >>> 8)});
+    }
+
+    /**
+     * Load the cached chunks for a key. The loader is only called once the whole
+     * file has been read successfully.
+     *
+     * @param chunkCount Number of chunks the caller expects
+     * @return true on a hit; false if there is no valid cache file for the key
+     */
+    public boolean read(long key, int chunkCount, ChunkLoader loader) {
+        FileHandle file = fileFor(key);
+        try {
+            if (!file.exists()) {
+                return false;
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(file.readBytes());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION || buffer.getLong() != key
+                || buffer.getInt() != chunkCount) {
+                System.err.println("⚠️ WARNING: Ignoring mismatched collision cache " + file.path());
+                return false;
+            }
+
+            Array<float[]> chunkRects = new Array<>(chunkCount);
+            Array<int[]> chunkCategories = new Array<>(chunkCount);
+            Array<Array<ConvexShape>> chunkPolygons = new Array<>(chunkCount);
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                // Each rect is 4 floats plus a category
+                int rectCount = readCount(buffer, 20);
+                FloatBuffer floats = buffer.asFloatBuffer();
+                float[] rectData = new float[rectCount * 4];
+                floats.get(rectData);
+                buffer.position(buffer.position() + rectData.length * 4);
+
+                int[] categories = new int[rectCount];
+                buffer.asIntBuffer().get(categories);
+                buffer.position(buffer.position() + categories.length * 4);
+
+                // Each polygon is at least a category and a float count
+                int polygonCount = readCount(buffer, 8);
+                Array<ConvexShape> polygons = new Array<>(Math.max(polygonCount, 1));
+                for (int i = 0; i < polygonCount; i++) {
+                    int category = buffer.getInt();
+                    float[] vertices = new float[readCount(buffer, 4)];
+                    buffer.asFloatBuffer().get(vertices);
+                    buffer.position(buffer.position() + vertices.length * 4);
+                    polygons.add(new ConvexShape(vertices, category));
+                }
+
+                chunkRects.add(rectData);
+                chunkCategories.add(categories);
+                chunkPolygons.add(polygons);
+            }
+
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                loader.load(chunk, chunkRects.get(chunk), chunkCategories.get(chunk), chunkPolygons.get(chunk));
+            }
+            return true;
+        } catch (Exception e) {
+            System.err.println("⚠️ WARNING: Could not read collision cache " + file.path() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Read an element count and check the file still holds that many elements,
+     * so a corrupt count is rejected before anything is allocated for it
+     */
+    private static int readCount(ByteBuffer buffer, int bytesPerElement) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || (long) count * bytesPerElement > buffer.remaining()) {
+            throw new IOException("corrupt element count " + count + " at offset " + (buffer.position() - 4));
+        }
+        return count;
+    }
+
+    /**
+     * Write the finished chunks for a key, then delete the files of other keys.
+     * Failures are logged, never thrown.
+     */
+    public void write(long key, CollisionChunk[] chunks) {
+        FileHandle file = fileFor(key);
+        FileHandle temp = directory.child(file.name() + ".tmp");
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(temp.write(false)));
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(key);
+                out.writeInt(chunks.length);
+
+                for (CollisionChunk chunk : chunks) {
+                    out.writeInt(chunk.getRectCount());
+                    for (int i = 0; i < chunk.getRectCount(); i++) {
+                        out.writeFloat(chunk.getRectMinX()[i]);
+                        out.writeFloat(chunk.getRectMinY()[i]);
+                        out.writeFloat(chunk.getRectMaxX()[i]);
+                        out.writeFloat(chunk.getRectMaxY()[i]);
+                    }
+                    for (int i = 0; i < chunk.getRectCount(); i++) {
+                        out.writeInt(chunk.getRectCategory()[i]);
+                    }
+
+                    out.writeInt(chunk.getPolygons().size);
+                    for (ConvexShape shape : chunk.getPolygons()) {
+                        float[] vertices = shape.getVertices();
+                        out.writeInt(shape.getCategory());
+                        out.writeInt(vertices.length);
+                        for (float v : vertices) {
+                            out.writeFloat(v);
+                        }
+                    }
+                }
+            } finally {
+                out.close();
+            }
+            replace(temp, file);
+        } catch (Exception e) {
+            System.err.println("⚠️ WARNING: Could not write collision cache " + file.path() + ": " + e.getMessage());
+            temp.delete();
+            return;
+        }
+        deleteStaleFiles(file);
+    }
+
+    /**
+     * Move the finished temporary file over the real one, atomically where the file system allows
+     */
+    private static void replace(FileHandle temp, FileHandle target) throws IOException {
+        File from = temp.file();
+        File to = target.file();
+        try {
+            Files.move(from.toPath(), to.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Delete cache files (and leftover temporary files) of every other key
+     */
+    private void deleteStaleFiles(FileHandle current) {
+        int deleted = 0;
+        for (FileHandle file : directory.list()) {
+            String name = file.name();
+            if (name.startsWith("collision-") && (name.endsWith(".bin") || name.endsWith(".bin.tmp"))
+                && !name.equals(current.name()) && file.delete()) {
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            System.out.println("✓ Deleted " + deleted + " stale collision cache file(s)");
+        }
+    }
+
+    private FileHandle fileFor(long key) {
+        return directory.child("collision-" + Long.toHexString(key) + ".bin");
+    }
+
+    /**
+     * 64-bit FNV-1a
+     */
+    private static long hash(long hash, byte[] bytes) {
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
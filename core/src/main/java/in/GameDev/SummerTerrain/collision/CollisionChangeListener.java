@@ -0,0 +1,15 @@
+package in.GameDev.SummerTerrain.collision;
+
+/**
+ * Notified when the collision shapes of a chunk change at runtime
+ * (see CollisionLayer.setTile), so derived data such as path grids or
+ * cached queries can be refreshed for just that area.
+ */
+public interface CollisionChangeListener {
+
+    /**
+     * @param chunkX Chunk column (CollisionLayer.getChunkColumn)
+     * @param chunkY Chunk row (CollisionLayer.getChunkRow)
+     */
+    void chunkChanged(int chunkX, int chunkY);
+}
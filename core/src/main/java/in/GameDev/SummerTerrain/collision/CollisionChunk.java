@@ -0,0 +1,300 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Collision shapes and indexes for one square block of tiles.
+ * A chunk is self-contained: rectangles reaching in from neighbouring cells are
+ * clipped to the chunk, and polygon pieces are referenced by every chunk they
+ * reach, so a query only has to look at the chunks it overlaps.
+ * Rectangles are stored as parallel minX/minY/maxX/maxY arrays rather than
+ * Rectangle objects, so bucket scans read contiguous floats; Rectangle copies
+ * are only made on request (getRect, getRects).
+ * Every shape carries category bits; queries take a mask and skip shapes
+ * whose category shares no bit with it.
+ * Chunks are never modified after construction and can be shared between threads.
+ */
+public class CollisionChunk {
+
+    private final int chunkX;
+    private final int chunkY;
+
+    // World-space area of the chunk
+    private final float minX;
+    private final float minY;
+    private final float maxX;
+    private final float maxY;
+
+    // Rectangle bounds, index i across all four arrays
+    private final int rectCount;
+    private final float[] rectMinX;
+    private final float[] rectMinY;
+    private final float[] rectMaxX;
+    private final float[] rectMaxY;
+    private final int[] rectCategory;
+
+    private final Array<ConvexShape> polygons;
+
+    // One grid cell per tile, covering the chunk area
+    private final SpatialHashGrid grid;
+    private final SpatialHashGrid polygonGrid;
+    private final TileOccupancyMask occupancy;
+
+    /**
+     * @param columns Chunk width in tiles
+     * @param rows    Chunk height in tiles
+     * @param rects          Packed rectangle bounds: minX, minY, maxX, maxY per rectangle
+     * @param rectCategories Category bits per rectangle
+     */
+    public CollisionChunk(int chunkX, int chunkY, float originX, float originY,
+                          int columns, int rows, float tileWidth, float tileHeight,
+                          int occupancySubdivisions, float[] rects, int[] rectCategories,
+                          Array<ConvexShape> polygons) {
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.minX = originX;
+        this.minY = originY;
+        this.maxX = originX + columns * tileWidth;
+        this.maxY = originY + rows * tileHeight;
+        this.polygons = polygons;
+        this.rectCategory = rectCategories;
+
+        rectCount = rects.length / 4;
+        rectMinX = new float[rectCount];
+        rectMinY = new float[rectCount];
+        rectMaxX = new float[rectCount];
+        rectMaxY = new float[rectCount];
+        for (int i = 0; i < rectCount; i++) {
+            rectMinX[i] = rects[i * 4];
+            rectMinY[i] = rects[i * 4 + 1];
+            rectMaxX[i] = rects[i * 4 + 2];
+            rectMaxY[i] = rects[i * 4 + 3];
+        }
+
+        grid = new SpatialHashGrid(originX, originY, columns, rows, tileWidth, tileHeight);
+        for (int i = 0; i < rectCount; i++) {
+            grid.insert(i, rectMinX[i], rectMinY[i], rectMaxX[i] - rectMinX[i], rectMaxY[i] - rectMinY[i]);
+        }
+
+        polygonGrid = new SpatialHashGrid(originX, originY, columns, rows, tileWidth, tileHeight);
+        for (int i = 0; i < polygons.size; i++) {
+            ConvexShape shape = polygons.get(i);
+            polygonGrid.insert(i, shape.getMinX(), shape.getMinY(),
+                shape.getMaxX() - shape.getMinX(), shape.getMaxY() - shape.getMinY());
+        }
+
+        occupancy = new TileOccupancyMask(originX, originY,
+            columns * occupancySubdivisions, rows * occupancySubdivisions,
+            tileWidth / occupancySubdivisions, tileHeight / occupancySubdivisions);
+        for (int i = 0; i < rectCount; i++) {
+            occupancy.addRectangle(rectMinX[i], rectMinY[i], rectMaxX[i] - rectMinX[i], rectMaxY[i] - rectMinY[i]);
+        }
+        for (ConvexShape shape : polygons) {
+            occupancy.addBounds(shape.getMinX(), shape.getMinY(), shape.getMaxX(), shape.getMaxY());
+        }
+    }
+
+    /**
+     * Point query: the occupancy mask answers solid and empty sub-tiles,
+     * only partially covered ones test the shapes in the point's cell.
+     * The mask does not know categories, so a filtered query only trusts EMPTY.
+     */
+    public boolean isBlocked(float worldX, float worldY, int mask) {
+        int state = occupancy.getState(worldX, worldY);
+        if (state == TileOccupancyMask.EMPTY) return false;
+        if (state == TileOccupancyMask.SOLID && mask == CollisionLayer.ALL_CATEGORIES) return true;
+
+        IntArray bucket = grid.getBucket(grid.getColumn(worldX), grid.getRow(worldY));
+        if (bucket != null) {
+            for (int i = 0; i < bucket.size; i++) {
+                int rect = bucket.items[i];
+                if ((rectCategory[rect] & mask) != 0
+                    && worldX >= rectMinX[rect] && worldX <= rectMaxX[rect]
+                    && worldY >= rectMinY[rect] && worldY <= rectMaxY[rect]) {
+                    return true;
+                }
+            }
+        }
+
+        bucket = polygonGrid.getBucket(polygonGrid.getColumn(worldX), polygonGrid.getRow(worldY));
+        if (bucket != null) {
+            for (int i = 0; i < bucket.size; i++) {
+                ConvexShape shape = polygons.get(bucket.items[i]);
+                if ((shape.getCategory() & mask) != 0 && shape.contains(worldX, worldY)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Box query against the shapes bucketed in the cells under the box
+     */
+    public boolean isRectangleBlocked(float x, float y, float width, float height, int mask) {
+        float maxX = x + width;
+        float maxY = y + height;
+        int minCol = grid.getColumn(x);
+        int maxCol = grid.getColumn(maxX);
+        int minRow = grid.getRow(y);
+        int maxRow = grid.getRow(maxY);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                IntArray bucket = grid.getBucket(col, row);
+                if (bucket != null) {
+                    // Strict overlap, as in Rectangle.overlaps
+                    for (int i = 0; i < bucket.size; i++) {
+                        int rect = bucket.items[i];
+                        if ((rectCategory[rect] & mask) != 0
+                            && x < rectMaxX[rect] && maxX > rectMinX[rect]
+                            && y < rectMaxY[rect] && maxY > rectMinY[rect]) {
+                            return true;
+                        }
+                    }
+                }
+
+                bucket = polygonGrid.getBucket(col, row);
+                if (bucket == null) continue;
+
+                for (int i = 0; i < bucket.size; i++) {
+                    ConvexShape shape = polygons.get(bucket.items[i]);
+                    if ((shape.getCategory() & mask) != 0 && shape.overlapsRectangle(x, y, width, height)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sweep a box along (dx, dy) against the shapes in the cells covered by the
+     * given swept bounds, keeping the earliest contact in the result
+     */
+    public void sweepRectangle(float x, float y, float width, float height, float dx, float dy,
+                               float boundsMinX, float boundsMinY, float boundsMaxX, float boundsMaxY,
+                               int mask, SweepResult result) {
+        int minCol = grid.getColumn(boundsMinX);
+        int maxCol = grid.getColumn(boundsMaxX);
+        int minRow = grid.getRow(boundsMinY);
+        int maxRow = grid.getRow(boundsMaxY);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                sweepCell(col, row, x, y, width, height, dx, dy, mask, result);
+            }
+        }
+    }
+
+    /**
+     * Sweep a box (or, with zero size, a ray) against the shapes of one grid cell
+     *
+     * @param column Chunk-local cell column
+     * @param row    Chunk-local cell row
+     */
+    public void sweepCell(int column, int row, float x, float y, float width, float height,
+                          float dx, float dy, int mask, SweepResult result) {
+        IntArray bucket = grid.getBucket(column, row);
+        if (bucket != null) {
+            for (int i = 0; i < bucket.size; i++) {
+                int rect = bucket.items[i];
+                if ((rectCategory[rect] & mask) == 0) continue;
+                SweptAxis.sweepBox(x, y, width, height, dx, dy,
+                    rectMinX[rect], rectMinY[rect], rectMaxX[rect], rectMaxY[rect], result);
+            }
+        }
+
+        bucket = polygonGrid.getBucket(column, row);
+        if (bucket == null) return;
+
+        for (int i = 0; i < bucket.size; i++) {
+            ConvexShape shape = polygons.get(bucket.items[i]);
+            if ((shape.getCategory() & mask) != 0) {
+                shape.sweepRectangle(x, y, width, height, dx, dy, result);
+            }
+        }
+    }
+
+    /**
+     * Copy rectangle i into a Rectangle
+     */
+    public Rectangle getRect(int index, Rectangle out) {
+        return out.set(rectMinX[index], rectMinY[index],
+            rectMaxX[index] - rectMinX[index], rectMaxY[index] - rectMinY[index]);
+    }
+
+    /**
+     * New Rectangle copies of all rectangles in this chunk
+     */
+    public Array<Rectangle> getRects() {
+        Array<Rectangle> rects = new Array<>(Math.max(rectCount, 1));
+        for (int i = 0; i < rectCount; i++) {
+            rects.add(getRect(i, new Rectangle()));
+        }
+        return rects;
+    }
+
+    // Getters
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkY() {
+        return chunkY;
+    }
+
+    public float getMinX() {
+        return minX;
+    }
+
+    public float getMinY() {
+        return minY;
+    }
+
+    public float getMaxX() {
+        return maxX;
+    }
+
+    public float getMaxY() {
+        return maxY;
+    }
+
+    public int getRectCount() {
+        return rectCount;
+    }
+
+    public float[] getRectMinX() {
+        return rectMinX;
+    }
+
+    public float[] getRectMinY() {
+        return rectMinY;
+    }
+
+    public float[] getRectMaxX() {
+        return rectMaxX;
+    }
+
+    public float[] getRectMaxY() {
+        return rectMaxY;
+    }
+
+    public int[] getRectCategory() {
+        return rectCategory;
+    }
+
+    public Array<ConvexShape> getPolygons() {
+        return polygons;
+    }
+
+    public SpatialHashGrid getSpatialGrid() {
+        return grid;
+    }
+
+    public TileOccupancyMask getOccupancyMask() {
+        return occupancy;
+    }
+}
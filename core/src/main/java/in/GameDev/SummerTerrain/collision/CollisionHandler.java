@@ -1,14 +1,48 @@
 package in.GameDev.SummerTerrain.collision;
 
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Handles collision checking for entities.
  * Separates X and Y movement for smooth sliding along walls.
+ * In swept mode the box is instead moved continuously up to the first contact
+ * and slid along the surface, so large frame deltas cannot tunnel through walls.
  */
 public class CollisionHandler {
 
+    // Gap kept between a swept box and the surface it stops against
+    private static final float CONTACT_SKIN = 0.01f;
+
+    // How far a query context's cached neighbourhood reaches, in tiles
+    private static final int CONTEXT_MARGIN_TILES = 1;
+
+    // Contacts resolved per move before the rest of the movement is dropped
+    private static final int MAX_SLIDES = 3;
+
+    // Batches at least this large are split across cores
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    // Entities resolved per fork/join leaf task
+    private static final int BATCH_GRAIN = 256;
+
     private CollisionLayer collisionLayer;
+    private boolean sweptCollision;
+
+    // Separated moves test sub-tile rasters instead of shapes (crowds)
+    private boolean rasterCollision;
+
+    // Separated moves first look up the box origin in the layer's inflated grid for its size
+    private boolean inflatedGrids;
+
+    // Shape categories this handler collides with
+    private int collisionMask = CollisionLayer.ALL_CATEGORIES;
+
+    // Scratch for single-threaded calls; batch tasks use their own
+    private final MoveScratch scratch = new MoveScratch();
 
     public CollisionHandler(CollisionLayer collisionLayer) {
         this.collisionLayer = collisionLayer;
@@ -31,26 +65,283 @@ public class CollisionHandler {
                                       float newX, float newY,
                                       float width, float height) {
 
+        return getAllowedMovement(null, currentX, currentY, newX, newY, width, height);
+    }
+
+    /**
+     * getAllowedMovement for an entity that keeps a query context between
+     * frames, so small moves reuse the shapes gathered around it
+     *
+     * @param context The entity's context from createQueryContext(), or null
+     * @return Array [allowedX, allowedY]
+     */
+    public float[] getAllowedMovement(CollisionQueryContext context,
+                                      float currentX, float currentY,
+                                      float newX, float newY,
+                                      float width, float height) {
+        if (sweptCollision) {
+            resolveSwept(context, currentX, currentY, newX, newY, width, height, scratch);
+        } else {
+            resolveSeparated(context, currentX, currentY, newX, newY, width, height, scratch);
+        }
+        return new float[]{scratch.x, scratch.y};
+    }
+
+    /**
+     * Allocation-free getAllowedMovement: writes the allowed position into a
+     * caller-owned vector instead of returning a new array, so per-frame
+     * movement produces no garbage
+     *
+     * @param context The entity's query context, or null
+     * @param out     Receives the allowed position
+     * @return out
+     */
+    public Vector2 getAllowedMovement(CollisionQueryContext context,
+                                      float currentX, float currentY,
+                                      float newX, float newY,
+                                      float width, float height, Vector2 out) {
+        if (sweptCollision) {
+            resolveSwept(context, currentX, currentY, newX, newY, width, height, scratch);
+        } else {
+            resolveSeparated(context, currentX, currentY, newX, newY, width, height, scratch);
+        }
+        return out.set(scratch.x, scratch.y);
+    }
+
+    /**
+     * Continuous version of getAllowedMovement: sweeps the box toward the desired
+     * position, stops just short of the first contact and slides the remaining
+     * movement along the contact surface.
+     *
+     * @return Array [allowedX, allowedY]
+     */
+    public float[] getAllowedMovementSwept(float currentX, float currentY,
+                                           float newX, float newY,
+                                           float width, float height) {
+        resolveSwept(null, currentX, currentY, newX, newY, width, height, scratch);
+        return new float[]{scratch.x, scratch.y};
+    }
+
+    /**
+     * Resolve the moves of many entities at once (same rules as getAllowedMovement).
+     * Large batches are split across cores with fork/join; the collision layer is
+     * only read, so all workers share it.
+     */
+    public void resolveMovements(MovementBatch batch) {
+        if (batch.size >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new ResolveTask(batch, 0, batch.size));
+        } else {
+            resolveRange(batch, 0, batch.size, scratch);
+        }
+    }
+
+    private void resolveRange(MovementBatch batch, int from, int to, MoveScratch moveScratch) {
+        float[] x = batch.x;
+        float[] y = batch.y;
+        float[] targetX = batch.targetX;
+        float[] targetY = batch.targetY;
+        float[] width = batch.width;
+        float[] height = batch.height;
+
+        for (int i = from; i < to; i++) {
+            if (sweptCollision) {
+                resolveSwept(null, x[i], y[i], targetX[i], targetY[i], width[i], height[i], moveScratch);
+            } else {
+                resolveSeparated(null, x[i], y[i], targetX[i], targetY[i], width[i], height[i], moveScratch);
+            }
+            batch.resolvedX[i] = moveScratch.x;
+            batch.resolvedY[i] = moveScratch.y;
+        }
+    }
+
+    /**
+     * X then Y movement, each kept only if the box would be free there
+     */
+    private void resolveSeparated(CollisionQueryContext context, float currentX, float currentY,
+                                  float newX, float newY, float width, float height, MoveScratch out) {
         float allowedX = currentX;
         float allowedY = currentY;
 
         // Try X movement first
-        if (!collisionLayer.isRectangleBlocked(newX, currentY, width, height)) {
+        if (!isBlocked(context, newX, currentY, width, height)) {
             allowedX = newX;
         }
 
         // Try Y movement
-        if (!collisionLayer.isRectangleBlocked(allowedX, newY, width, height)) {
+        if (!isBlocked(context, allowedX, newY, width, height)) {
             allowedY = newY;
         }
 
-        return new float[]{allowedX, allowedY};
+        out.x = allowedX;
+        out.y = allowedY;
+    }
+
+    /**
+     * Sweep to the first contact, then slide along it (up to MAX_SLIDES contacts).
+     * A box that already overlaps a shape (spawned inside a wall, or left a
+     * float-ulp inside one) falls back to the separated test: sweeps ignore
+     * shapes overlapping at the start and would let it walk through.
+     */
+    private void resolveSwept(CollisionQueryContext context, float currentX, float currentY,
+                              float newX, float newY, float width, float height, MoveScratch out) {
+        boolean overlapping = context != null
+            ? context.isRectangleBlocked(currentX, currentY, width, height, collisionMask)
+            : collisionLayer.isRectangleBlocked(currentX, currentY, width, height, collisionMask);
+        if (overlapping) {
+            resolveSeparated(context, currentX, currentY, newX, newY, width, height, out);
+            return;
+        }
+
+        SweepResult sweepResult = out.sweep;
+        float x = currentX;
+        float y = currentY;
+        float dx = newX - currentX;
+        float dy = newY - currentY;
+
+        for (int i = 0; i < MAX_SLIDES && (dx != 0 || dy != 0); i++) {
+            boolean hit = context != null
+                ? context.sweepRectangle(x, y, width, height, dx, dy, collisionMask, sweepResult)
+                : collisionLayer.sweepRectangle(x, y, width, height, dx, dy, collisionMask, sweepResult);
+            if (!hit) {
+                x += dx;
+                y += dy;
+                break;
+            }
+
+            // Advance to the contact, then back off by the skin along the contact
+            // normal so we stay outside the shape even on a glancing hit
+            x += dx * sweepResult.time + sweepResult.normalX * CONTACT_SKIN;
+            y += dy * sweepResult.time + sweepResult.normalY * CONTACT_SKIN;
+
+            // Slide: keep only the part of the remaining movement along the surface
+            float remainingX = dx * (1 - sweepResult.time);
+            float remainingY = dy * (1 - sweepResult.time);
+            float into = remainingX * sweepResult.normalX + remainingY * sweepResult.normalY;
+            dx = remainingX - into * sweepResult.normalX;
+            dy = remainingY - into * sweepResult.normalY;
+        }
+
+        out.x = x;
+        out.y = y;
+    }
+
+    private boolean isBlocked(CollisionQueryContext context, float x, float y, float width, float height) {
+        if (rasterCollision) {
+            return collisionLayer.isRectangleBlockedRaster(x, y, width, height);
+        }
+        if (inflatedGrids && !collisionLayer.getInflatedGrid(width, height, collisionMask).isBlocked(x, y)) {
+            return false;
+        }
+        return context != null
+            ? context.isRectangleBlocked(x, y, width, height, collisionMask)
+            : collisionLayer.isRectangleBlocked(x, y, width, height, collisionMask);
+    }
+
+    /**
+     * New neighbourhood cache for one moving entity, see getAllowedMovement(context, ...)
+     */
+    public CollisionQueryContext createQueryContext() {
+        return new CollisionQueryContext(collisionLayer, CONTEXT_MARGIN_TILES *
+            Math.max(collisionLayer.getTileWidth(), collisionLayer.getTileHeight()));
+    }
+
+    /**
+     * Sweep a box along (dx, dy) and report the time of impact and contact normal
+     */
+    public SweepResult sweep(float x, float y, float width, float height,
+                             float dx, float dy, SweepResult result) {
+        collisionLayer.sweepRectangle(x, y, width, height, dx, dy, collisionMask, result);
+        return result;
+    }
+
+    /**
+     * Enable continuous (swept) collision in getAllowedMovement
+     */
+    public void setSweptCollision(boolean sweptCollision) {
+        this.sweptCollision = sweptCollision;
+    }
+
+    public boolean isSweptCollision() {
+        return sweptCollision;
+    }
+
+    /**
+     * Resolve separated (non-swept) moves against the layer's sub-tile rasters,
+     * see CollisionLayer.enableRasterMasks. Approximate and ignores the
+     * collision mask, but much cheaper for large crowds.
+     */
+    public void setRasterCollision(boolean rasterCollision) {
+        this.rasterCollision = rasterCollision;
+    }
+
+    public boolean isRasterCollision() {
+        return rasterCollision;
+    }
+
+    /**
+     * Answer separated moves from per-size inflated occupancy grids
+     * (CollisionLayer.getInflatedGrid) where they are clear, so free movement
+     * is one bit lookup; possible contacts still get the exact test. Pays off
+     * for entities that share a handful of fixed box sizes.
+     */
+    public void setInflatedGrids(boolean inflatedGrids) {
+        this.inflatedGrids = inflatedGrids;
+    }
+
+    public boolean isInflatedGrids() {
+        return inflatedGrids;
+    }
+
+    /**
+     * Only collide with shapes whose category shares a bit with the mask
+     * (e.g. a flying entity that ignores the water layer)
+     */
+    public void setCollisionMask(int collisionMask) {
+        this.collisionMask = collisionMask;
+    }
+
+    public int getCollisionMask() {
+        return collisionMask;
     }
 
     /**
      * Simple collision check without movement calculation
      */
     public boolean isBlocked(float x, float y, float width, float height) {
-        return collisionLayer.isRectangleBlocked(x, y, width, height);
+        return collisionLayer.isRectangleBlocked(x, y, width, height, collisionMask);
+    }
+
+    /**
+     * Per-thread working state for one resolution: the allowed position and sweep scratch
+     */
+    private static final class MoveScratch {
+        final SweepResult sweep = new SweepResult();
+        float x;
+        float y;
+    }
+
+    /**
+     * Splits a batch in halves until a slice is small enough to resolve directly
+     */
+    private final class ResolveTask extends RecursiveAction {
+        private final MovementBatch batch;
+        private final int from;
+        private final int to;
+
+        ResolveTask(MovementBatch batch, int from, int to) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_GRAIN) {
+                resolveRange(batch, from, to, new MoveScratch());
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ResolveTask(batch, from, mid), new ResolveTask(batch, mid, to));
+        }
     }
 }
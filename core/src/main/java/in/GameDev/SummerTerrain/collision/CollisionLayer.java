@@ -1,31 +1,163 @@
 package in.GameDev.SummerTerrain.collision;
 
 import com.badlogic.gdx.maps.MapLayer;
-import com.badlogic.gdx.maps.MapObject;
-import com.badlogic.gdx.maps.objects.RectangleMapObject;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTile;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Reads collision data from tile collision shapes in Tiled.
  * Supports reading from multiple layers.
+ * Rectangle shapes are kept as world rectangles; polygon shapes are split
+ * into convex pieces once at load and tested with a separating-axis check.
+ *
+ * Shapes are stored in square chunks of tiles (see CollisionChunk). By default
+ * every chunk is built up front. In chunked mode a chunk is only built the first
+ * time a query touches it, and the least recently used chunks are dropped once
+ * more than the budget are resident, so memory and startup cost follow the area
+ * that is actually visited rather than the map size.
+ *
+ * Every shape is tagged with category bits: by default bit i for the i-th
+ * collision layer given to the constructor, overridden by an integer "category"
+ * property on the Tiled layer or on the tile. Queries take an optional mask, so
+ * e.g. flying and walking entities can share one CollisionLayer while blocking
+ * on different shapes.
+ *
+ * Queries only read the collision data, so any number of threads may query
+ * at the same time once the layer is built (chunked mode builds under a lock).
+ * Runtime edits replace whole chunks; threads that need one consistent version
+ * across many queries take a snapshot().
  */
 public class CollisionLayer {
 
+    // Query mask matching every shape
+    public static final int ALL_CATEGORIES = -1;
+
+    // Chunk edge in tiles used when all chunks are built up front
+    public static final int DEFAULT_CHUNK_SIZE = 32;
+
+    // Origin cells per tile edge in inflated occupancy grids
+    private static final int INFLATED_CELLS_PER_TILE = 8;
+
+    // Up-front builds with at least this many chunks run on the fork/join pool
+    private static final int PARALLEL_BUILD_MIN_CHUNKS = 4;
+
+    // Occupancy mask cells per tile edge (2 = four mask cells per tile)
+    private static final int OCCUPANCY_SUBDIVISIONS = 2;
+
+    // Gap (in pixels) under which abutting rectangles are merged
+    private static final float MERGE_TOLERANCE = 0.125f;
+
+    private TiledMap map;
     private Array<TiledMapTileLayer> layers;
+    private IntArray layerCategories;
     private int tileWidth;
     private int tileHeight;
-    private Array<Rectangle> collisionRects;
+    private int widthInTiles;
+    private int heightInTiles;
+
+    // Tile ID -> collision shapes, converted once per tileset
+    private TileShapeTemplates templates;
+
+    // Cells on each side of a chunk whose shapes can reach into it
+    private int marginLeft;
+    private int marginRight;
+    private int marginBottom;
+    private int marginTop;
+
+    private int chunkSize;
+    private int chunksX;
+    private int chunksY;
+    private float chunkWorldWidth;
+    private float chunkWorldHeight;
+
+    // Row-major; in chunked mode null until built (or after eviction)
+    // Up-front mode: never written after construction, edits publish a new array
+    private volatile CollisionChunk[] chunks;
+
+    // Chunked mode: lazy building under an LRU budget
+    private boolean lazy;
+    private int maxResidentChunks;
+    private IntArray residentChunks;
+    private long[] lastUsed;
+    private long useClock; // approximate under concurrent queries, which is fine for eviction
+    private int chunksBuilt;
+    private int chunksEvicted;
+
+    // Told about chunks rebuilt by runtime tile edits
+    private final Array<CollisionChangeListener> listeners = new Array<>();
+
+    // Bumped by every runtime edit, so cached neighbourhoods know to refresh
+    private volatile int revision;
+
+    // Latest immutable view (up-front mode only)
+    private volatile CollisionSnapshot snapshot;
+
+    // Optional sub-tile rasters: cells per tile edge (0 = off), one raster per
+    // tile ID, composed into one raster per chunk on first use and kept with the
+    // chunk it was composed for
+    private volatile int rasterResolution;
+    private IntMap<SubTileRaster> templateRasters;
+    private ChunkRaster[] rasters;
+
+    // Configuration-space grids per registered box size; replaced, never modified
+    private volatile InflatedOccupancyGrid[] inflatedGrids = new InflatedOccupancyGrid[0];
+
+    // Per-thread result for the boolean ray queries, so they stay safe to call concurrently
+    private final ThreadLocal<SweepResult> rayScratch = ThreadLocal.withInitial(SweepResult::new);
 
     /**
      * Initialize with multiple layer names
      */
     public CollisionLayer(TiledMap map, String... layerNames) {
+        this(map, null, layerNames);
+    }
+
+    /**
+     * Initialize with multiple layer names, reusing the shapes built by an earlier
+     * run when the cache holds a build for the same map content
+     */
+    public CollisionLayer(TiledMap map, CollisionCache cache, String... layerNames) {
+        this(map, cache, DEFAULT_CHUNK_SIZE, 0, layerNames);
+    }
+
+    /**
+     * Chunked mode: collision for a chunk is built the first time a query touches it
+     *
+     * @param chunkSize         Chunk edge in tiles (16 or 32 work well)
+     * @param maxResidentChunks Chunks kept in memory before the least recently used are evicted
+     */
+    public CollisionLayer(TiledMap map, int chunkSize, int maxResidentChunks, String... layerNames) {
+        this(map, null, chunkSize, requirePositiveBudget(maxResidentChunks), layerNames);
+    }
+
+    private static int requirePositiveBudget(int maxResidentChunks) {
+        if (maxResidentChunks <= 0) {
+            throw new IllegalArgumentException("Chunk budget must be positive: " + maxResidentChunks);
+        }
+        return maxResidentChunks;
+    }
+
+    private CollisionLayer(TiledMap map, CollisionCache cache, int chunkSize, int maxResidentChunks,
+                           String... layerNames) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.map = map;
         this.layers = new Array<>();
-        this.collisionRects = new Array<>();
+        this.layerCategories = new IntArray();
+        this.chunkSize = chunkSize;
+        this.lazy = maxResidentChunks > 0;
+        this.maxResidentChunks = maxResidentChunks;
 
         System.out.println("=== CollisionLayer Initialization ===");
         System.out.println("Looking for layers: " + String.join(", ", layerNames));
@@ -45,8 +177,12 @@ public class CollisionLayer {
             }
 
             TiledMapTileLayer tileLayer = (TiledMapTileLayer) mapLayer;
+            Integer category = tileLayer.getProperties().get(TileShapeTemplate.CATEGORY_PROPERTY, Integer.class);
             layers.add(tileLayer);
-            System.out.println("✓ Added layer: " + layerName);
+            layerCategories.add(category != null ? category : 1 << (layers.size - 1));
+            System.out.println("✓ Added layer: " + layerName +
+                " (" + tileLayer.getWidth() + "x" + tileLayer.getHeight() + " tiles, category 0x" +
+                Integer.toHexString(layerCategories.peek()) + ")");
 
             // Set tile dimensions from first valid layer
             if (tileWidth == 0) {
@@ -54,6 +190,8 @@ public class CollisionLayer {
                 this.tileHeight = (int) tileLayer.getTileHeight();
                 System.out.println("  Tile size: " + tileWidth + "x" + tileHeight);
             }
+            widthInTiles = Math.max(widthInTiles, tileLayer.getWidth());
+            heightInTiles = Math.max(heightInTiles, tileLayer.getHeight());
         }
 
         if (layers.size == 0) {
@@ -65,136 +203,899 @@ public class CollisionLayer {
             throw new IllegalArgumentException("No valid collision layers found");
         }
 
-        // Build collision rectangles from all layers
-        buildCollisionRectangles();
+        widthInTiles = Math.max(widthInTiles, 1);
+        heightInTiles = Math.max(heightInTiles, 1);
+        chunksX = (widthInTiles + chunkSize - 1) / chunkSize;
+        chunksY = (heightInTiles + chunkSize - 1) / chunkSize;
+        chunkWorldWidth = chunkSize * tileWidth;
+        chunkWorldHeight = chunkSize * tileHeight;
+        chunks = new CollisionChunk[chunksX * chunksY];
+
+        if (lazy) {
+            residentChunks = new IntArray(maxResidentChunks);
+            lastUsed = new long[chunks.length];
+            loadTemplates();
+            System.out.println("✓ CollisionLayer initialized (chunked, built on demand)");
+            System.out.println("  Chunks: " + chunksX + "x" + chunksY + " of " + chunkSize + "x" + chunkSize +
+                " tiles, budget " + maxResidentChunks + " resident");
+            System.out.println("=== Initialization Complete ===");
+            return;
+        }
+
+        // Build collision chunks from all layers (or load the previous build)
+        long cacheKey = cache != null ? cache.computeKey(chunkSize, layerNames) : 0;
+        if (cache != null && cache.read(cacheKey, chunks.length, (index, rects, rectCategories, polygons) ->
+                chunks[index] = newChunk(index % chunksX, index / chunksX, rects, rectCategories, polygons))) {
+            System.out.println("✓ Collision shapes loaded from cache");
+        } else {
+            buildAllChunks();
+            if (cache != null) {
+                cache.write(cacheKey, chunks);
+            }
+        }
+
+        int rectCount = 0;
+        int pieceCount = 0;
+        int solidCells = 0;
+        int touchedCells = 0;
+        int maskCells = 0;
+        for (CollisionChunk chunk : chunks) {
+            rectCount += chunk.getRectCount();
+            pieceCount += chunk.getPolygons().size;
+            TileOccupancyMask mask = chunk.getOccupancyMask();
+            solidCells += mask.getSolidCount();
+            touchedCells += mask.getTouchedCount();
+            maskCells += mask.getColumns() * mask.getRows();
+        }
+
+        snapshot = new CollisionSnapshot(this, chunks, revision);
 
         System.out.println("✓ CollisionLayer initialized (using tile collision shapes)");
         System.out.println("  Layers loaded: " + layers.size);
-        System.out.println("  Collision rectangles found: " + collisionRects.size);
+        System.out.println("  Chunks: " + chunksX + "x" + chunksY + " of " + chunkSize + "x" + chunkSize + " tiles");
+        System.out.println("  Collision rectangles (merged): " + rectCount);
+        System.out.println("  Convex polygon pieces: " + pieceCount);
+        System.out.println("  Occupancy mask: " + solidCells + " solid / " +
+            touchedCells + " touched of " + maskCells + " cells");
         System.out.println("=== Initialization Complete ===");
     }
 
     /**
-     * Extract collision rectangles from all tiles in all layers
+     * Convert each tile ID's shapes once into a template and work out how far
+     * shapes can reach past their own cell
      */
-    private void buildCollisionRectangles() {
-        int rectCount = 0;
+    private void loadTemplates() {
+        templates = new TileShapeTemplates(map);
+        System.out.println("Tile shape templates: " + templates.getTilesWithCollision() +
+            " of " + templates.size() + " tile IDs have collision");
 
-        for (TiledMapTileLayer layer : layers) {
-            System.out.println("========================================");
-            System.out.println("Scanning layer: " + layer.getName());
-            System.out.println("Layer dimensions: " + layer.getWidth() + "x" + layer.getHeight() + " tiles");
-            int layerRects = 0;
-            int tilesWithCollision = 0;
-            int totalTiles = 0;
-            int nullCells = 0;
-            int nullTiles = 0;
+        updateMargins();
+    }
 
-            for (int x = 0; x < layer.getWidth(); x++) {
-                for (int y = 0; y < layer.getHeight(); y++) {
+    private void updateMargins() {
+        marginLeft = (int) Math.ceil(Math.max(0, templates.getMaxX() - tileWidth) / tileWidth);
+        marginRight = (int) Math.ceil(Math.max(0, -templates.getMinX()) / tileWidth);
+        marginBottom = (int) Math.ceil(Math.max(0, templates.getMaxY() - tileHeight) / tileHeight);
+        marginTop = (int) Math.ceil(Math.max(0, -templates.getMinY()) / tileHeight);
+    }
+
+    /**
+     * Build every chunk up front and report what was found.
+     * Rows of chunks are built as bands on the fork/join pool. Chunks are
+     * independent and each band writes only its own slots, so the result is
+     * identical to a sequential build; band counts are summed in band order.
+     */
+    private void buildAllChunks() {
+        loadTemplates();
+
+        long start = System.nanoTime();
+        BuildStats stats;
+        if (chunks.length >= PARALLEL_BUILD_MIN_CHUNKS && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            stats = ForkJoinPool.commonPool().invoke(new BuildBandTask(0, chunksY));
+        } else {
+            stats = buildRows(0, chunksY);
+        }
+        System.out.println("✓ Built " + chunks.length + " chunks in " +
+            (System.nanoTime() - start) / 1000000 + " ms");
+
+        System.out.println("========================================");
+        System.out.println("Collision build summary:");
+        System.out.println("  Tiles with collision objects: " + stats.tilesWithCollision +
+            " (" + stats.solidTiles + " solid)");
+        System.out.println("  Collision polygons found: " + stats.polygons);
+        if (stats.unsupported > 0) {
+            System.out.println("  ⚠ Unsupported collision objects (ellipse, polyline, ...): " + stats.unsupported);
+        }
+        System.out.println("Merged collision rectangles: " + stats.rects + " -> " + stats.mergedRects);
+        System.out.println("========================================");
+    }
+
+    /**
+     * Build the chunks of rows [fromRow, toRow)
+     */
+    private BuildStats buildRows(int fromRow, int toRow) {
+        BuildStats stats = new BuildStats();
+        for (int cy = fromRow; cy < toRow; cy++) {
+            for (int cx = 0; cx < chunksX; cx++) {
+                chunks[cy * chunksX + cx] = buildChunk(cx, cy, stats);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Build one chunk: stamp the templates of every cell whose shapes can reach
+     * the chunk, clip rectangles to the chunk and merge them.
+     * Shapes are not clipped along the outer map border.
+     *
+     * @param stats Receives counts for the chunk's own cells, may be null
+     */
+    private CollisionChunk buildChunk(int cx, int cy, BuildStats stats) {
+        int firstCol = cx * chunkSize;
+        int firstRow = cy * chunkSize;
+        int endCol = Math.min(firstCol + chunkSize, widthInTiles);
+        int endRow = Math.min(firstRow + chunkSize, heightInTiles);
+
+        float clipMinX = cx == 0 ? -Float.MAX_VALUE : firstCol * tileWidth;
+        float clipMinY = cy == 0 ? -Float.MAX_VALUE : firstRow * tileHeight;
+        float clipMaxX = cx == chunksX - 1 ? Float.MAX_VALUE : endCol * tileWidth;
+        float clipMaxY = cy == chunksY - 1 ? Float.MAX_VALUE : endRow * tileHeight;
+
+        // Rectangles are merged per category, so merging never mixes categories
+        IntMap<Array<Rectangle>> rectsByCategory = new IntMap<>();
+        Array<Rectangle> stamped = new Array<>();
+        Array<ConvexShape> polygons = new Array<>();
+        int ownRects = 0;
+
+        for (int l = 0; l < layers.size; l++) {
+            TiledMapTileLayer layer = layers.get(l);
+            int layerCategory = layerCategories.get(l);
+            int scanMinX = Math.max(firstCol - marginLeft, 0);
+            int scanMaxX = Math.min(endCol + marginRight, layer.getWidth());
+            int scanMinY = Math.max(firstRow - marginBottom, 0);
+            int scanMaxY = Math.min(endRow + marginTop, layer.getHeight());
+
+            for (int x = scanMinX; x < scanMaxX; x++) {
+                for (int y = scanMinY; y < scanMaxY; y++) {
                     TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                    if (cell == null || cell.getTile() == null) {
+                        continue;
+                    }
 
-                    if (cell == null) {
-                        nullCells++;
+                    // Look up the tile's precomputed shapes and stamp them at this cell
+                    TileShapeTemplate template = templates.get(cell.getTile());
+                    if (template == null) {
                         continue;
                     }
 
-                    totalTiles++;
+                    int category = template.getCategory() != 0 ? template.getCategory() : layerCategory;
+                    int firstPiece = polygons.size;
+                    stamped.clear();
+                    template.stamp(x * tileWidth, y * tileHeight, tileWidth, tileHeight, category, stamped, polygons);
+                    clipRectangles(stamped, 0, clipMinX, clipMinY, clipMaxX, clipMaxY);
+                    dropOutside(polygons, firstPiece, clipMinX, clipMinY, clipMaxX, clipMaxY);
 
-                    if (cell.getTile() == null) {
-                        nullTiles++;
-                        continue;
+                    if (stamped.size > 0) {
+                        Array<Rectangle> group = rectsByCategory.get(category);
+                        if (group == null) {
+                            group = new Array<>();
+                            rectsByCategory.put(category, group);
+                        }
+                        group.addAll(stamped);
                     }
 
-                    TiledMapTile tile = cell.getTile();
+                    boolean ownCell = x >= firstCol && x < endCol && y >= firstRow && y < endRow;
+                    if (ownCell && stats != null) {
+                        stats.tilesWithCollision++;
+                        if (template.isSolid()) stats.solidTiles++;
+                        stats.polygons += template.getPolygonCount();
+                        stats.unsupported += template.getUnsupportedCount();
+                        ownRects += stamped.size;
+                    }
+                }
+            }
+        }
 
-                    // Check if this tile has collision objects
-                    if (tile.getObjects() != null && tile.getObjects().getCount() > 0) {
-                        tilesWithCollision++;
+        // Merge duplicate, contained and abutting rectangles into maximal ones
+        FloatArray packed = new FloatArray();
+        IntArray categories = new IntArray();
+        for (IntMap.Entry<Array<Rectangle>> group : rectsByCategory) {
+            Array<Rectangle> merged = RectangleMerger.merge(group.value, MERGE_TOLERANCE);
+            for (Rectangle rect : merged) {
+                packed.add(rect.x, rect.y, rect.x + rect.width, rect.y + rect.height);
+                categories.add(group.key);
+            }
+        }
+        if (stats != null) {
+            stats.rects += ownRects;
+            stats.mergedRects += categories.size;
+        }
+        return newChunk(cx, cy, packed.toArray(), categories.toArray(), polygons);
+    }
 
-                        // Log what type of objects we found (first 3 only)
-                        if (tilesWithCollision <= 3) {
-                            System.out.println("  Tile at (" + x + "," + y + ") has " +
-                                tile.getObjects().getCount() + " collision object(s)");
+    /**
+     * @param rects          Packed minX, minY, maxX, maxY per rectangle
+     * @param rectCategories Category bits per rectangle
+     */
+    private CollisionChunk newChunk(int cx, int cy, float[] rects, int[] rectCategories,
+                                    Array<ConvexShape> polygons) {
+        int firstCol = cx * chunkSize;
+        int firstRow = cy * chunkSize;
+        return new CollisionChunk(cx, cy, firstCol * tileWidth, firstRow * tileHeight,
+            Math.min(chunkSize, widthInTiles - firstCol), Math.min(chunkSize, heightInTiles - firstRow),
+            tileWidth, tileHeight, OCCUPANCY_SUBDIVISIONS, rects, rectCategories, polygons);
+    }
 
-                            for (MapObject obj : tile.getObjects()) {
-                                System.out.println("    Object type: " + obj.getClass().getSimpleName());
-                            }
-                        }
+    /**
+     * Clip the rectangles from index 'from' on to the clip area, dropping those left empty
+     */
+    private static void clipRectangles(Array<Rectangle> rects, int from,
+                                       float minX, float minY, float maxX, float maxY) {
+        for (int i = rects.size - 1; i >= from; i--) {
+            Rectangle rect = rects.get(i);
+            float x0 = Math.max(rect.x, minX);
+            float y0 = Math.max(rect.y, minY);
+            float x1 = Math.min(rect.x + rect.width, maxX);
+            float y1 = Math.min(rect.y + rect.height, maxY);
+            if (x1 <= x0 || y1 <= y0) {
+                rects.removeIndex(i);
+            } else {
+                rect.set(x0, y0, x1 - x0, y1 - y0);
+            }
+        }
+    }
 
-                        // Convert tile-local collision shapes to world coordinates
-                        for (MapObject object : tile.getObjects()) {
-                            if (object instanceof RectangleMapObject) {
-                                Rectangle tileRect = ((RectangleMapObject) object).getRectangle();
-
-                                // Convert to world coordinates
-                                Rectangle worldRect = new Rectangle(
-                                    x * tileWidth + tileRect.x,
-                                    y * tileHeight + tileRect.y,
-                                    tileRect.width,
-                                    tileRect.height
-                                );
-
-                                collisionRects.add(worldRect);
-                                rectCount++;
-                                layerRects++;
-
-                                // Debug: print first 5 collision rects per layer
-                                if (layerRects <= 5) {
-                                    System.out.println("  ✓ Rect #" + layerRects +
-                                        " at tile(" + x + "," + y + "): " +
-                                        "world_x=" + (int)worldRect.x + ", world_y=" + (int)worldRect.y +
-                                        ", w=" + (int)worldRect.width + ", h=" + (int)worldRect.height);
-                                }
-                            } else {
-                                // Non-rectangle collision object found
-                                if (layerRects <= 5) {
-                                    System.out.println("  ⚠ Non-rectangle collision object at (" + x + "," + y +
-                                        ") - type: " + object.getClass().getSimpleName());
-                                }
-                            }
-                        }
-                    }
+    /**
+     * Drop the polygon pieces from index 'from' on whose bounds miss the clip area
+     */
+    private static void dropOutside(Array<ConvexShape> polygons, int from,
+                                    float minX, float minY, float maxX, float maxY) {
+        for (int i = polygons.size - 1; i >= from; i--) {
+            ConvexShape shape = polygons.get(i);
+            if (shape.getMaxX() < minX || shape.getMinX() > maxX
+                || shape.getMaxY() < minY || shape.getMinY() > maxY) {
+                polygons.removeIndex(i);
+            }
+        }
+    }
+
+    /**
+     * Place a tile at runtime (build a wall, grow a tree, ...) and update collision.
+     * Only the chunks the cell's shapes can reach are rebuilt, usually just one,
+     * so the cost depends on the chunk size and not on the map size. In chunked
+     * mode chunks that are not resident are not rebuilt; they pick up the change
+     * when they are next built. Listeners still hear about every chunk the edit
+     * reaches, resident or not, because data derived from earlier queries (path
+     * grids, inflated grids) can cover chunks that have since been evicted.
+     *
+     * @param tile The new tile, or null to clear the cell
+     * @return Number of chunks the edit reaches, i.e. the chunks reported to listeners
+     */
+    public synchronized int setTile(String layerName, int tileX, int tileY, TiledMapTile tile) {
+        TiledMapTileLayer layer = findLayer(layerName);
+        if (tileX < 0 || tileY < 0 || tileX >= layer.getWidth() || tileY >= layer.getHeight()) {
+            throw new IllegalArgumentException("Tile (" + tileX + "," + tileY + ") is outside layer '" +
+                layerName + "' (" + layer.getWidth() + "x" + layer.getHeight() + ")");
+        }
+
+        if (templates == null) {
+            loadTemplates();
+        }
+
+        // Chunks reached by the old shapes must be rebuilt as well as those the new ones reach
+        int reachLeft = marginRight;
+        int reachRight = marginLeft;
+        int reachDown = marginTop;
+        int reachUp = marginBottom;
+
+        TiledMapTileLayer.Cell cell = layer.getCell(tileX, tileY);
+        if (tile == null) {
+            layer.setCell(tileX, tileY, null);
+        } else {
+            if (cell == null) {
+                cell = new TiledMapTileLayer.Cell();
+                layer.setCell(tileX, tileY, cell);
+            }
+            cell.setTile(tile);
+
+            // A tile that was not in any tileset may reach further than those seen so far
+            templates.get(tile);
+            updateMargins();
+        }
+
+        reachLeft = Math.max(reachLeft, marginRight);
+        reachRight = Math.max(reachRight, marginLeft);
+        reachDown = Math.max(reachDown, marginTop);
+        reachUp = Math.max(reachUp, marginBottom);
+
+        int minCX = Math.max(tileX - reachLeft, 0) / chunkSize;
+        int maxCX = Math.min(tileX + reachRight, widthInTiles - 1) / chunkSize;
+        int minCY = Math.max(tileY - reachDown, 0) / chunkSize;
+        int maxCY = Math.min(tileY + reachUp, heightInTiles - 1) / chunkSize;
+
+        // Up-front mode is copy-on-write: rebuild into a copy and publish it in one
+        // write, so readers and snapshots never see a half-applied edit
+        CollisionChunk[] next = lazy ? chunks : chunks.clone();
+        int changed = 0;
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                int index = cy * chunksX + cx;
+                // Non-resident chunks are counted and reported all the same, see above
+                if (next[index] != null) {
+                    next[index] = buildChunk(cx, cy, null);
+                }
+                if (rasters != null) {
+                    rasters[index] = null;
                 }
+                changed++;
             }
+        }
+        chunks = next;
+        revision++;
+        if (!lazy) {
+            snapshot = new CollisionSnapshot(this, next, revision);
+        }
 
-            System.out.println("Layer '" + layer.getName() + "' summary:");
-            System.out.println("  Null cells (empty): " + nullCells);
-            System.out.println("  Cells with tiles: " + totalTiles);
-            System.out.println("  Null tiles in cells: " + nullTiles);
-            System.out.println("  Tiles with collision objects: " + tilesWithCollision);
-            System.out.println("  Collision rectangles found: " + layerRects);
-            System.out.println("========================================");
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                for (int i = 0; i < listeners.size; i++) {
+                    listeners.get(i).chunkChanged(cx, cy);
+                }
+            }
         }
+        return changed;
     }
 
     /**
-     * Check if a point collides with any collision rectangle
+     * Remove a tile at runtime (destroy a rock, open a door, ...), see setTile
+     *
+     * @return Number of chunks the edit reaches, i.e. the chunks reported to listeners
+     */
+    public int clearTile(String layerName, int tileX, int tileY) {
+        return setTile(layerName, tileX, tileY, null);
+    }
+
+    private TiledMapTileLayer findLayer(String layerName) {
+        for (int i = 0; i < layers.size; i++) {
+            if (layers.get(i).getName().equals(layerName)) {
+                return layers.get(i);
+            }
+        }
+        throw new IllegalArgumentException("'" + layerName + "' is not a collision layer");
+    }
+
+    public synchronized void addChangeListener(CollisionChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public synchronized void removeChangeListener(CollisionChangeListener listener) {
+        listeners.removeValue(listener, true);
+    }
+
+    /**
+     * Chunk at chunk coordinates, building it first in chunked mode
+     */
+    public CollisionChunk getChunk(int chunkX, int chunkY) {
+        int index = chunkY * chunksX + chunkX;
+        CollisionChunk chunk = chunks[index];
+        if (chunk == null) {
+            chunk = loadChunk(index);
+        }
+        if (lazy) {
+            lastUsed[index] = ++useClock;
+        }
+        return chunk;
+    }
+
+    private synchronized CollisionChunk loadChunk(int index) {
+        CollisionChunk chunk = chunks[index];
+        if (chunk != null) {
+            return chunk;
+        }
+
+        if (residentChunks.size >= maxResidentChunks) {
+            evictLeastRecentlyUsed();
+        }
+        chunk = buildChunk(index % chunksX, index / chunksX, null);
+        chunks[index] = chunk;
+        residentChunks.add(index);
+        chunksBuilt++;
+        return chunk;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        int oldest = 0;
+        for (int i = 1; i < residentChunks.size; i++) {
+            if (lastUsed[residentChunks.get(i)] < lastUsed[residentChunks.get(oldest)]) {
+                oldest = i;
+            }
+        }
+        int index = residentChunks.removeIndex(oldest);
+        chunks[index] = null;
+        if (rasters != null) {
+            rasters[index] = null;
+        }
+        chunksEvicted++;
+    }
+
+    /**
+     * Build the chunks under an area ahead of time (e.g. around the player or a
+     * spawn point) so the first query there does not pay for the build.
+     * Does nothing for chunks that are already resident.
+     */
+    public void preloadArea(float x, float y, float width, float height) {
+        int minCX = getChunkColumn(x);
+        int maxCX = getChunkColumn(x + width);
+        int minCY = getChunkRow(y);
+        int maxCY = getChunkRow(y + height);
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                getChunk(cx, cy);
+            }
+        }
+    }
+
+    /**
+     * Chunk column containing a world X coordinate, clamped to the map
+     */
+    public int getChunkColumn(float worldX) {
+        int cx = (int) Math.floor(worldX / chunkWorldWidth);
+        return Math.max(0, Math.min(cx, chunksX - 1));
+    }
+
+    /**
+     * Chunk row containing a world Y coordinate, clamped to the map
+     */
+    public int getChunkRow(float worldY) {
+        int cy = (int) Math.floor(worldY / chunkWorldHeight);
+        return Math.max(0, Math.min(cy, chunksY - 1));
+    }
+
+    /**
+     * Check if a point collides with any collision shape.
+     * Fully solid or empty sub-tiles are answered from the chunk's occupancy mask;
+     * only partially covered ones test the shapes in their grid cell.
      */
     public boolean isBlocked(float worldX, float worldY) {
-        for (Rectangle rect : collisionRects) {
-            if (rect.contains(worldX, worldY)) {
-                return true;
+        return isBlocked(worldX, worldY, ALL_CATEGORIES);
+    }
+
+    /**
+     * Point query against only the shapes whose category shares a bit with the mask
+     */
+    public boolean isBlocked(float worldX, float worldY, int mask) {
+        return getChunk(getChunkColumn(worldX), getChunkRow(worldY)).isBlocked(worldX, worldY, mask);
+    }
+
+    /**
+     * Batch point query for many cheap probes per frame (AI feelers, ground checks, spawns).
+     *
+     * @param points  Packed x,y pairs
+     * @param count   Number of points to test
+     * @param results Receives isBlocked() for each point
+     * @return Number of blocked points
+     */
+    public int isBlocked(float[] points, int count, boolean[] results) {
+        int blocked = 0;
+        for (int i = 0; i < count; i++) {
+            boolean hit = isBlocked(points[i * 2], points[i * 2 + 1]);
+            results[i] = hit;
+            if (hit) blocked++;
+        }
+        return blocked;
+    }
+
+    /**
+     * Check if a rectangle (entity bounds) collides with any collision shape.
+     * Only the shapes bucketed in the grid cells under the entity are tested;
+     * polygon pieces are rejected by their bounds before the SAT test.
+     */
+    public boolean isRectangleBlocked(float x, float y, float width, float height) {
+        return isRectangleBlocked(x, y, width, height, ALL_CATEGORIES);
+    }
+
+    /**
+     * Box query against only the shapes whose category shares a bit with the mask
+     */
+    public boolean isRectangleBlocked(float x, float y, float width, float height, int mask) {
+        int minCX = getChunkColumn(x);
+        int maxCX = getChunkColumn(x + width);
+        int minCY = getChunkRow(y);
+        int maxCY = getChunkRow(y + height);
+
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                if (getChunk(cx, cy).isRectangleBlocked(x, y, width, height, mask)) {
+                    return true;
+                }
             }
         }
         return false;
     }
 
     /**
-     * Check if a rectangle (entity bounds) collides with any collision rectangle
+     * Sweep an entity box along (dx, dy) and report the first contact.
+     * The move is walked in steps no longer than one tile, and each step only
+     * tests the shapes bucketed in the cells its swept bounds cover. A long move
+     * (frame hitch, fast entity) therefore stays bounded and cannot skip thin walls.
+     *
+     * @return true if the box hits a shape before completing the move
      */
-    public boolean isRectangleBlocked(float x, float y, float width, float height) {
-        Rectangle entityRect = new Rectangle(x, y, width, height);
+    public boolean sweepRectangle(float x, float y, float width, float height,
+                                  float dx, float dy, SweepResult result) {
+        return sweepRectangle(x, y, width, height, dx, dy, ALL_CATEGORIES, result);
+    }
 
-        for (Rectangle rect : collisionRects) {
-            if (entityRect.overlaps(rect)) {
+    /**
+     * Sweep against only the shapes whose category shares a bit with the mask
+     */
+    public boolean sweepRectangle(float x, float y, float width, float height,
+                                  float dx, float dy, int mask, SweepResult result) {
+        result.reset();
+        float cells = Math.max(Math.abs(dx) / tileWidth, Math.abs(dy) / tileHeight);
+        int steps = Math.max(1, (int) Math.ceil(cells));
+
+        for (int step = 0; step < steps; step++) {
+            float t0 = (float) step / steps;
+            float t1 = (float) (step + 1) / steps;
+            float minX = x + Math.min(dx * t0, dx * t1);
+            float minY = y + Math.min(dy * t0, dy * t1);
+            float maxX = x + Math.max(dx * t0, dx * t1) + width;
+            float maxY = y + Math.max(dy * t0, dy * t1) + height;
+
+            int minCX = getChunkColumn(minX);
+            int maxCX = getChunkColumn(maxX);
+            int minCY = getChunkRow(minY);
+            int maxCY = getChunkRow(maxY);
+
+            for (int cy = minCY; cy <= maxCY; cy++) {
+                for (int cx = minCX; cx <= maxCX; cx++) {
+                    getChunk(cx, cy).sweepRectangle(x, y, width, height, dx, dy,
+                        minX, minY, maxX, maxY, mask, result);
+                }
+            }
+
+            // Anything hit later than this step lies in cells of a later step
+            if (result.hit && result.time <= t1) {
                 return true;
             }
         }
+        return result.hit;
+    }
+
+    /**
+     * Turn on approximate box tests against sub-tile rasters (see
+     * isRectangleBlockedRaster). Each tile ID's shapes, polygons included, are
+     * rasterised once into a resolution x resolution bitmask; a chunk's raster
+     * is composed from those on its first raster query.
+     *
+     * @param resolution Sub-cells per tile edge, typically 8 or 16
+     */
+    public synchronized void enableRasterMasks(int resolution) {
+        if (resolution < 1 || resolution > 64) {
+            throw new IllegalArgumentException("Raster resolution must be 1..64, got " + resolution);
+        }
+        if (templates == null) {
+            loadTemplates();
+        }
+        templateRasters = new IntMap<>();
+        rasters = new ChunkRaster[chunks.length];
+        rasterResolution = resolution;
+        System.out.println("✓ Sub-tile raster masks enabled (" + resolution + "x" + resolution + " per tile)");
+    }
+
+    /**
+     * Approximate version of isRectangleBlocked for crowds: ANDs the box with
+     * the sub-tile rasters instead of testing shapes. Never misses a collision,
+     * but may report one up to a sub-cell early. Ignores categories and shapes
+     * reaching past the map border. Falls back to the exact test when raster
+     * masks are not enabled.
+     */
+    public boolean isRectangleBlockedRaster(float x, float y, float width, float height) {
+        if (rasterResolution == 0) {
+            return isRectangleBlocked(x, y, width, height);
+        }
+        int minCX = getChunkColumn(x);
+        int maxCX = getChunkColumn(x + width);
+        int minCY = getChunkRow(y);
+        int maxCY = getChunkRow(y + height);
+
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                if (getRaster(cx, cy).overlaps(x, y, width, height)) {
+                    return true;
+                }
+            }
+        }
         return false;
     }
 
+    /**
+     * Raster of a chunk, composed on first use. A raster is only reused while
+     * the chunk it was composed for is current: setTile and eviction replace
+     * the chunk, so a raster a racing thread stores after an edit is never read.
+     */
+    private SubTileRaster getRaster(int cx, int cy) {
+        ChunkRaster[] rasters = this.rasters;
+        CollisionChunk chunk = getChunk(cx, cy);
+        int index = cy * chunksX + cx;
+        ChunkRaster entry = rasters[index];
+        if (entry == null || entry.chunk != chunk) {
+            // Cells are edited before the new chunk is published, so a raster
+            // composed after reading this chunk is never older than it
+            entry = new ChunkRaster(chunk, buildRaster(cx, cy));
+            rasters[index] = entry;
+        }
+        return entry.raster;
+    }
+
+    /**
+     * OR the raster of every cell whose shapes can reach a chunk into the chunk's raster
+     */
+    private SubTileRaster buildRaster(int cx, int cy) {
+        int resolution = rasterResolution;
+        int firstCol = cx * chunkSize;
+        int firstRow = cy * chunkSize;
+        int endCol = Math.min(firstCol + chunkSize, widthInTiles);
+        int endRow = Math.min(firstRow + chunkSize, heightInTiles);
+        SubTileRaster raster = new SubTileRaster(firstCol * tileWidth, firstRow * tileHeight,
+            (endCol - firstCol) * resolution, (endRow - firstRow) * resolution,
+            (float) tileWidth / resolution, (float) tileHeight / resolution);
+
+        // Indexed: rasters are composed on batch worker threads, see collectShapes
+        for (int l = 0; l < layers.size; l++) {
+            TiledMapTileLayer layer = layers.get(l);
+            int scanMinX = Math.max(firstCol - marginLeft, 0);
+            int scanMaxX = Math.min(endCol + marginRight, layer.getWidth());
+            int scanMinY = Math.max(firstRow - marginBottom, 0);
+            int scanMaxY = Math.min(endRow + marginTop, layer.getHeight());
+
+            for (int x = scanMinX; x < scanMaxX; x++) {
+                for (int y = scanMinY; y < scanMaxY; y++) {
+                    TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                    if (cell == null || cell.getTile() == null) {
+                        continue;
+                    }
+                    SubTileRaster tileRaster = getTemplateRaster(cell.getTile(), resolution);
+                    if (tileRaster != null) {
+                        raster.or(tileRaster, x * tileWidth, y * tileHeight);
+                    }
+                }
+            }
+        }
+        return raster;
+    }
+
+    private SubTileRaster getTemplateRaster(TiledMapTile tile, int resolution) {
+        synchronized (templateRasters) {
+            int id = tile.getId();
+            if (templateRasters.containsKey(id)) {
+                return templateRasters.get(id);
+            }
+            TileShapeTemplate template = templates.get(tile);
+            SubTileRaster raster = template == null ? null
+                : SubTileRaster.fromTemplate(template, tileWidth, tileHeight, resolution);
+            templateRasters.put(id, raster);
+            return raster;
+        }
+    }
+
+    /**
+     * Occupancy grid of box origins for one entity size (see InflatedOccupancyGrid),
+     * created on first request and cached per size. Its blocks are built lazily
+     * and dropped when runtime edits change their shapes.
+     */
+    public InflatedOccupancyGrid getInflatedGrid(float width, float height) {
+        return getInflatedGrid(width, height, ALL_CATEGORIES);
+    }
+
+    /**
+     * Inflated grid for a box size, counting only shapes whose category shares a bit with the mask
+     */
+    public InflatedOccupancyGrid getInflatedGrid(float width, float height, int mask) {
+        InflatedOccupancyGrid grid = findInflatedGrid(inflatedGrids, width, height, mask);
+        if (grid != null) {
+            return grid;
+        }
+        synchronized (this) {
+            InflatedOccupancyGrid[] grids = inflatedGrids;
+            grid = findInflatedGrid(grids, width, height, mask);
+            if (grid == null) {
+                float cellSize = (float) Math.min(tileWidth, tileHeight) / INFLATED_CELLS_PER_TILE;
+                grid = new InflatedOccupancyGrid(this, width, height, mask, cellSize);
+                addChangeListener(grid);
+                InflatedOccupancyGrid[] copy = Arrays.copyOf(grids, grids.length + 1);
+                copy[grids.length] = grid;
+                inflatedGrids = copy;
+                System.out.println("✓ Inflated occupancy grid registered for " + width + "x" + height + " boxes");
+            }
+            return grid;
+        }
+    }
+
+    private static InflatedOccupancyGrid findInflatedGrid(InflatedOccupancyGrid[] grids,
+                                                          float width, float height, int mask) {
+        for (InflatedOccupancyGrid grid : grids) {
+            if (grid.getWidth() == width && grid.getHeight() == height && grid.getMask() == mask) {
+                return grid;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gather the shapes matching the mask that overlap or touch the area into a
+     * query context
+     */
+    void collectShapes(float minX, float minY, float maxX, float maxY, int mask, CollisionQueryContext out) {
+        int minCX = getChunkColumn(minX);
+        int maxCX = getChunkColumn(maxX);
+        int minCY = getChunkRow(minY);
+        int maxCY = getChunkRow(maxY);
+
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                CollisionChunk chunk = getChunk(cx, cy);
+                float[] rectMinX = chunk.getRectMinX();
+                float[] rectMinY = chunk.getRectMinY();
+                float[] rectMaxX = chunk.getRectMaxX();
+                float[] rectMaxY = chunk.getRectMaxY();
+                int[] rectCategory = chunk.getRectCategory();
+                for (int i = 0; i < chunk.getRectCount(); i++) {
+                    if ((rectCategory[i] & mask) != 0
+                        && rectMinX[i] <= maxX && rectMaxX[i] >= minX
+                        && rectMinY[i] <= maxY && rectMaxY[i] >= minY) {
+                        out.addRect(rectMinX[i], rectMinY[i], rectMaxX[i], rectMaxY[i]);
+                    }
+                }
+                // Indexed: Array's cached iterators are neither allocation-free
+                // nor safe when batch tasks gather on several threads
+                Array<ConvexShape> polygons = chunk.getPolygons();
+                for (int i = 0; i < polygons.size; i++) {
+                    ConvexShape shape = polygons.get(i);
+                    if ((shape.getCategory() & mask) != 0
+                        && shape.getMinX() <= maxX && shape.getMaxX() >= minX
+                        && shape.getMinY() <= maxY && shape.getMaxY() >= minY) {
+                        out.addPolygon(shape);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Cast a ray from (x0, y0) to (x1, y1) and report the first shape it hits.
+     * The ray walks the tile grid cell by cell (DDA) and only tests the shapes
+     * bucketed in the cells it crosses, stopping at the first cell holding a hit
+     * closer than the cell's far edge. Shapes containing the start point are
+     * ignored, as in sweepRectangle.
+     *
+     * @return true on a hit; the hit point is (x0 + (x1 - x0) * time, y0 + (y1 - y0) * time)
+     */
+    public boolean raycast(float x0, float y0, float x1, float y1, SweepResult result) {
+        return raycast(x0, y0, x1, y1, ALL_CATEGORIES, result);
+    }
+
+    /**
+     * Raycast against only the shapes whose category shares a bit with the mask
+     * (e.g. let sight pass over low rocks)
+     */
+    public boolean raycast(float x0, float y0, float x1, float y1, int mask, SweepResult result) {
+        result.reset();
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+
+        int col = (int) Math.floor(x0 / tileWidth);
+        int row = (int) Math.floor(y0 / tileHeight);
+        int endCol = (int) Math.floor(x1 / tileWidth);
+        int endRow = (int) Math.floor(y1 / tileHeight);
+        int stepCol = dx > 0 ? 1 : -1;
+        int stepRow = dy > 0 ? 1 : -1;
+
+        // Ray time at which the next column / row boundary is crossed, and the time per cell
+        float nextX = dx > 0 ? ((col + 1) * tileWidth - x0) / dx
+            : dx < 0 ? (col * tileWidth - x0) / dx : Float.POSITIVE_INFINITY;
+        float nextY = dy > 0 ? ((row + 1) * tileHeight - y0) / dy
+            : dy < 0 ? (row * tileHeight - y0) / dy : Float.POSITIVE_INFINITY;
+        float deltaX = dx != 0 ? tileWidth / Math.abs(dx) : Float.POSITIVE_INFINITY;
+        float deltaY = dy != 0 ? tileHeight / Math.abs(dy) : Float.POSITIVE_INFINITY;
+
+        int cells = Math.abs(endCol - col) + Math.abs(endRow - row) + 1;
+        for (int i = 0; i < cells; i++) {
+            raycastCell(col, row, x0, y0, dx, dy, mask, result);
+
+            // Shapes are bucketed in every cell they touch, so a hit before this
+            // cell's far edge cannot be beaten by anything in a later cell
+            if (result.hit && result.time <= Math.min(nextX, nextY)) {
+                return true;
+            }
+
+            if (nextX < nextY) {
+                col += stepCol;
+                nextX += deltaX;
+            } else {
+                row += stepRow;
+                nextY += deltaY;
+            }
+        }
+        return result.hit;
+    }
+
+    /**
+     * Cast a ray and return a new result (see raycast(x0, y0, x1, y1, result))
+     */
+    public SweepResult raycast(float x0, float y0, float x1, float y1) {
+        SweepResult result = new SweepResult();
+        raycast(x0, y0, x1, y1, result);
+        return result;
+    }
+
+    /**
+     * Test a ray against one tile's shapes. Cells outside the map use the border
+     * cells, which hold any shapes reaching past the map edge.
+     */
+    private void raycastCell(int col, int row, float x0, float y0, float dx, float dy,
+                             int mask, SweepResult result) {
+        col = Math.max(0, Math.min(col, widthInTiles - 1));
+        row = Math.max(0, Math.min(row, heightInTiles - 1));
+        int cx = col / chunkSize;
+        int cy = row / chunkSize;
+        getChunk(cx, cy).sweepCell(col - cx * chunkSize, row - cy * chunkSize, x0, y0, 0, 0, dx, dy, mask, result);
+    }
+
+    /**
+     * True if nothing blocks the segment between two points
+     */
+    public boolean hasLineOfSight(float x0, float y0, float x1, float y1) {
+        return !raycast(x0, y0, x1, y1, rayScratch.get());
+    }
+
+    /**
+     * Answer a batch of line-of-sight checks (AI vision, aim assist, ...).
+     * Checks between entity pairs already answered this frame are taken from the
+     * cache instead of casting again; pass null to cast every check.
+     *
+     * @return Number of checks with line of sight
+     */
+    public int hasLineOfSight(LineOfSightBatch batch, LineOfSightCache cache) {
+        SweepResult result = rayScratch.get();
+        int visibleCount = 0;
+        for (int i = 0; i < batch.size; i++) {
+            int observer = batch.observerId[i];
+            int target = batch.targetId[i];
+            boolean cacheable = cache != null
+                && observer != LineOfSightBatch.NO_ID && target != LineOfSightBatch.NO_ID;
+
+            Boolean cached = cacheable ? cache.get(observer, target) : null;
+            boolean visible;
+            if (cached != null) {
+                visible = cached;
+            } else {
+                visible = !raycast(batch.fromX[i], batch.fromY[i], batch.toX[i], batch.toY[i], result);
+                if (cacheable) {
+                    cache.put(observer, target, visible);
+                }
+            }
+
+            batch.visible[i] = visible;
+            if (visible) visibleCount++;
+        }
+        return visibleCount;
+    }
+
     // Getters
+    /**
+     * Category bits given to shapes from a collision layer (unless a tile overrides them)
+     */
+    public int getLayerCategory(String layerName) {
+        for (int i = 0; i < layers.size; i++) {
+            if (layers.get(i).getName().equals(layerName)) {
+                return layerCategories.get(i);
+            }
+        }
+        throw new IllegalArgumentException("'" + layerName + "' is not a collision layer");
+    }
+
     public int getTileWidth() {
         return tileWidth;
     }
@@ -211,7 +1112,202 @@ public class CollisionLayer {
         return layers.first().getHeight();
     }
 
+    /**
+     * Merged collision rectangles of all resident chunks (every chunk unless in
+     * chunked mode), as new Rectangle copies of the packed chunk storage.
+     * Built on each call.
+     */
     public Array<Rectangle> getCollisionRects() {
-        return collisionRects;
+        Array<Rectangle> rects = new Array<>();
+        for (CollisionChunk chunk : chunks) {
+            if (chunk != null) {
+                rects.addAll(chunk.getRects());
+            }
+        }
+        return rects;
+    }
+
+    /**
+     * Build a bounding-volume hierarchy over all collision shapes, for callers
+     * dominated by large or irregular shapes. Shapes are stamped from the tiles
+     * without chunk clipping, so an oversized shape stays one leaf; rectangles
+     * are merged per category and polygon pieces become leaves of their own.
+     * The tree is a snapshot: rebuild it after runtime tile edits.
+     */
+    public synchronized AabbTree buildAabbTree() {
+        if (templates == null) {
+            loadTemplates();
+        }
+
+        IntMap<Array<Rectangle>> rectsByCategory = new IntMap<>();
+        Array<ConvexShape> polygons = new Array<>();
+        for (int l = 0; l < layers.size; l++) {
+            TiledMapTileLayer layer = layers.get(l);
+            int layerCategory = layerCategories.get(l);
+            for (int x = 0; x < layer.getWidth(); x++) {
+                for (int y = 0; y < layer.getHeight(); y++) {
+                    TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                    TileShapeTemplate template = cell == null || cell.getTile() == null
+                        ? null : templates.get(cell.getTile());
+                    if (template == null) {
+                        continue;
+                    }
+
+                    int category = template.getCategory() != 0 ? template.getCategory() : layerCategory;
+                    Array<Rectangle> group = rectsByCategory.get(category);
+                    if (group == null) {
+                        group = new Array<>();
+                        rectsByCategory.put(category, group);
+                    }
+                    template.stamp(x * tileWidth, y * tileHeight, tileWidth, tileHeight, category, group, polygons);
+                }
+            }
+        }
+
+        Array<Rectangle> rects = new Array<>();
+        for (IntMap.Entry<Array<Rectangle>> group : rectsByCategory) {
+            rects.addAll(RectangleMerger.merge(group.value, MERGE_TOLERANCE));
+        }
+        return new AabbTree(rects, polygons);
+    }
+
+    /**
+     * Signed distance field of the current shapes (see DistanceField), for
+     * clearance steering and one-lookup circle tests. Queries every cell, so in
+     * chunked mode this builds every chunk. Rebuild it after runtime tile edits.
+     *
+     * @param cellsPerTile Grid cells per tile edge
+     */
+    public DistanceField buildDistanceField(int cellsPerTile) {
+        return new DistanceField(this, cellsPerTile, ALL_CATEGORIES);
+    }
+
+    /**
+     * Convex polygon pieces of all resident chunks, each listed once even when it
+     * reaches into several chunks. Built on each call.
+     */
+    public Array<ConvexShape> getCollisionPolygons() {
+        Array<ConvexShape> polygons = new Array<>();
+        for (CollisionChunk chunk : chunks) {
+            if (chunk == null) continue;
+            for (ConvexShape shape : chunk.getPolygons()) {
+                // List a piece only from the chunk holding its lower-left corner
+                if (getChunkColumn(shape.getMinX()) == chunk.getChunkX()
+                    && getChunkRow(shape.getMinY()) == chunk.getChunkY()) {
+                    polygons.add(shape);
+                }
+            }
+        }
+        return polygons;
+    }
+
+    /**
+     * Immutable view of the current shapes, safe to query from any thread
+     * without locks while this layer keeps being edited. Only available when
+     * all chunks are built up front; chunked mode builds chunks from the live
+     * tile layers, which a snapshot could not keep consistent.
+     */
+    public CollisionSnapshot snapshot() {
+        if (lazy) {
+            throw new IllegalStateException("Snapshots need all chunks built up front, not chunked mode");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Number of runtime edits so far
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getChunksX() {
+        return chunksX;
+    }
+
+    public int getChunksY() {
+        return chunksY;
+    }
+
+    public boolean isChunked() {
+        return lazy;
+    }
+
+    public synchronized int getResidentChunkCount() {
+        return lazy ? residentChunks.size : chunks.length;
+    }
+
+    public synchronized int getChunksBuilt() {
+        return lazy ? chunksBuilt : chunks.length;
+    }
+
+    public synchronized int getChunksEvicted() {
+        return chunksEvicted;
+    }
+
+    /**
+     * A chunk's raster and the chunk it was composed for. Fields are final so
+     * the raster is fully visible to threads that read the entry without a lock.
+     */
+    private static final class ChunkRaster {
+        final CollisionChunk chunk;
+        final SubTileRaster raster;
+
+        ChunkRaster(CollisionChunk chunk, SubTileRaster raster) {
+            this.chunk = chunk;
+            this.raster = raster;
+        }
+    }
+
+    /**
+     * Counters gathered while building all chunks up front
+     */
+    private static final class BuildStats {
+        int tilesWithCollision;
+        int solidTiles;
+        int polygons;
+        int unsupported;
+        int rects;
+        int mergedRects;
+
+        BuildStats add(BuildStats other) {
+            tilesWithCollision += other.tilesWithCollision;
+            solidTiles += other.solidTiles;
+            polygons += other.polygons;
+            unsupported += other.unsupported;
+            rects += other.rects;
+            mergedRects += other.mergedRects;
+            return this;
+        }
+    }
+
+    /**
+     * Splits a band of chunk rows in halves until it is one row, then builds it
+     */
+    private final class BuildBandTask extends RecursiveTask<BuildStats> {
+        private final int fromRow;
+        private final int toRow;
+
+        BuildBandTask(int fromRow, int toRow) {
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected BuildStats compute() {
+            if (toRow - fromRow <= 1) {
+                return buildRows(fromRow, toRow);
+            }
+            int mid = (fromRow + toRow) >>> 1;
+            BuildBandTask lower = new BuildBandTask(fromRow, mid);
+            BuildBandTask upper = new BuildBandTask(mid, toRow);
+            upper.fork();
+            BuildStats stats = lower.compute();
+            return stats.add(upper.join());
+        }
     }
 }
@@ -0,0 +1,161 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Arrays;
+
+/**
+ * Per-entity neighbourhood of collision shapes, kept between frames.
+ * A moving entity only covers a few pixels per frame, so the shapes around its
+ * last position are gathered once into a small region (the query bounds grown
+ * by a margin) and reused until a query leaves that region, the mask changes
+ * or the layer is edited. Steady-state queries then test a handful of shapes
+ * instead of looking up chunks and grid cells again.
+ *
+ * Gives the same answers as the matching CollisionLayer queries. Holds state
+ * for one entity, so it is not thread-safe; give each entity its own.
+ */
+public class CollisionQueryContext {
+
+    private final CollisionLayer layer;
+    private final float margin;
+
+    // Region whose shapes are cached; invalid until the first query
+    private boolean valid;
+    private float regionMinX;
+    private float regionMinY;
+    private float regionMaxX;
+    private float regionMaxY;
+    private int regionMask;
+    private int regionRevision;
+
+    // Candidate rectangles, packed as in CollisionChunk
+    private float[] rectMinX = new float[16];
+    private float[] rectMinY = new float[16];
+    private float[] rectMaxX = new float[16];
+    private float[] rectMaxY = new float[16];
+    private int rectCount;
+
+    private final Array<ConvexShape> polygons = new Array<>();
+
+    private int queries;
+    private int refreshes;
+
+    /**
+     * @param margin How far (world units) the cached region reaches beyond the
+     *               queried box; larger means fewer refreshes but more candidates
+     */
+    public CollisionQueryContext(CollisionLayer layer, float margin) {
+        if (margin < 0) {
+            throw new IllegalArgumentException("Margin must not be negative, got " + margin);
+        }
+        this.layer = layer;
+        this.margin = margin;
+    }
+
+    /**
+     * Same as CollisionLayer.isRectangleBlocked
+     */
+    public boolean isRectangleBlocked(float x, float y, float width, float height, int mask) {
+        float maxX = x + width;
+        float maxY = y + height;
+        ensureRegion(x, y, maxX, maxY, mask);
+
+        for (int i = 0; i < rectCount; i++) {
+            if (x < rectMaxX[i] && maxX > rectMinX[i] && y < rectMaxY[i] && maxY > rectMinY[i]) {
+                return true;
+            }
+        }
+        for (int i = 0; i < polygons.size; i++) {
+            if (polygons.get(i).overlapsRectangle(x, y, width, height)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same as CollisionLayer.sweepRectangle
+     */
+    public boolean sweepRectangle(float x, float y, float width, float height,
+                                  float dx, float dy, int mask, SweepResult result) {
+        result.reset();
+        ensureRegion(x + Math.min(dx, 0), y + Math.min(dy, 0),
+            x + Math.max(dx, 0) + width, y + Math.max(dy, 0) + height, mask);
+
+        for (int i = 0; i < rectCount; i++) {
+            SweptAxis.sweepBox(x, y, width, height, dx, dy,
+                rectMinX[i], rectMinY[i], rectMaxX[i], rectMaxY[i], result);
+        }
+        for (int i = 0; i < polygons.size; i++) {
+            polygons.get(i).sweepRectangle(x, y, width, height, dx, dy, result);
+        }
+        return result.hit;
+    }
+
+    /**
+     * Drop the cached shapes, e.g. after teleporting the entity
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Re-gather the shapes unless the cached region still covers the box
+     */
+    private void ensureRegion(float minX, float minY, float maxX, float maxY, int mask) {
+        queries++;
+        if (valid && mask == regionMask && layer.getRevision() == regionRevision
+            && minX >= regionMinX && minY >= regionMinY && maxX <= regionMaxX && maxY <= regionMaxY) {
+            return;
+        }
+
+        // Read the revision first, so an edit during the gather forces another refresh
+        regionRevision = layer.getRevision();
+        regionMask = mask;
+        regionMinX = minX - margin;
+        regionMinY = minY - margin;
+        regionMaxX = maxX + margin;
+        regionMaxY = maxY + margin;
+        rectCount = 0;
+        polygons.clear();
+        layer.collectShapes(regionMinX, regionMinY, regionMaxX, regionMaxY, mask, this);
+        valid = true;
+        refreshes++;
+    }
+
+    void addRect(float minX, float minY, float maxX, float maxY) {
+        if (rectCount == rectMinX.length) {
+            int capacity = rectCount * 2;
+            rectMinX = Arrays.copyOf(rectMinX, capacity);
+            rectMinY = Arrays.copyOf(rectMinY, capacity);
+            rectMaxX = Arrays.copyOf(rectMaxX, capacity);
+            rectMaxY = Arrays.copyOf(rectMaxY, capacity);
+        }
+        rectMinX[rectCount] = minX;
+        rectMinY[rectCount] = minY;
+        rectMaxX[rectCount] = maxX;
+        rectMaxY[rectCount] = maxY;
+        rectCount++;
+    }
+
+    void addPolygon(ConvexShape shape) {
+        // Pieces reaching into several chunks are seen once per chunk
+        if (!polygons.contains(shape, true)) {
+            polygons.add(shape);
+        }
+    }
+
+    // Getters
+    public int getCandidateCount() {
+        return rectCount + polygons.size;
+    }
+
+    public int getQueries() {
+        return queries;
+    }
+
+    public int getRefreshes() {
+        return refreshes;
+    }
+}
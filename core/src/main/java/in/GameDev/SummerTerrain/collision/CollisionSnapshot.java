@@ -0,0 +1,164 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Immutable view of a CollisionLayer's shapes at one revision.
+ * Chunks are never modified once built, and runtime edits publish a new chunk
+ * array instead of writing into the old one (copy-on-write), so a snapshot
+ * keeps answering from the version it was taken at. Worker threads (AI,
+ * pathfinding, lighting) can take one and query it without locks while the
+ * main thread keeps editing the layer.
+ *
+ * Get the latest one from CollisionLayer.snapshot(); taking it costs nothing.
+ */
+public class CollisionSnapshot {
+
+    private final CollisionChunk[] chunks;
+    private final int revision;
+
+    private final int chunksX;
+    private final int chunksY;
+    private final float chunkWorldWidth;
+    private final float chunkWorldHeight;
+    private final float tileWidth;
+    private final float tileHeight;
+
+    CollisionSnapshot(CollisionLayer layer, CollisionChunk[] chunks, int revision) {
+        this.chunks = chunks;
+        this.revision = revision;
+        this.chunksX = layer.getChunksX();
+        this.chunksY = layer.getChunksY();
+        this.tileWidth = layer.getTileWidth();
+        this.tileHeight = layer.getTileHeight();
+        this.chunkWorldWidth = layer.getChunkSize() * tileWidth;
+        this.chunkWorldHeight = layer.getChunkSize() * tileHeight;
+    }
+
+    /**
+     * Same as CollisionLayer.isBlocked
+     */
+    public boolean isBlocked(float worldX, float worldY) {
+        return isBlocked(worldX, worldY, CollisionLayer.ALL_CATEGORIES);
+    }
+
+    public boolean isBlocked(float worldX, float worldY, int mask) {
+        return getChunk(getChunkColumn(worldX), getChunkRow(worldY)).isBlocked(worldX, worldY, mask);
+    }
+
+    /**
+     * Same as CollisionLayer.isRectangleBlocked
+     */
+    public boolean isRectangleBlocked(float x, float y, float width, float height) {
+        return isRectangleBlocked(x, y, width, height, CollisionLayer.ALL_CATEGORIES);
+    }
+
+    public boolean isRectangleBlocked(float x, float y, float width, float height, int mask) {
+        int minCX = getChunkColumn(x);
+        int maxCX = getChunkColumn(x + width);
+        int minCY = getChunkRow(y);
+        int maxCY = getChunkRow(y + height);
+
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                if (getChunk(cx, cy).isRectangleBlocked(x, y, width, height, mask)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same as CollisionLayer.sweepRectangle
+     */
+    public boolean sweepRectangle(float x, float y, float width, float height,
+                                  float dx, float dy, SweepResult result) {
+        return sweepRectangle(x, y, width, height, dx, dy, CollisionLayer.ALL_CATEGORIES, result);
+    }
+
+    public boolean sweepRectangle(float x, float y, float width, float height,
+                                  float dx, float dy, int mask, SweepResult result) {
+        result.reset();
+        float cells = Math.max(Math.abs(dx) / tileWidth, Math.abs(dy) / tileHeight);
+        int steps = Math.max(1, (int) Math.ceil(cells));
+
+        for (int step = 0; step < steps; step++) {
+            float t0 = (float) step / steps;
+            float t1 = (float) (step + 1) / steps;
+            float minX = x + Math.min(dx * t0, dx * t1);
+            float minY = y + Math.min(dy * t0, dy * t1);
+            float maxX = x + Math.max(dx * t0, dx * t1) + width;
+            float maxY = y + Math.max(dy * t0, dy * t1) + height;
+
+            int minCX = getChunkColumn(minX);
+            int maxCX = getChunkColumn(maxX);
+            int minCY = getChunkRow(minY);
+            int maxCY = getChunkRow(maxY);
+
+            for (int cy = minCY; cy <= maxCY; cy++) {
+                for (int cx = minCX; cx <= maxCX; cx++) {
+                    getChunk(cx, cy).sweepRectangle(x, y, width, height, dx, dy,
+                        minX, minY, maxX, maxY, mask, result);
+                }
+            }
+
+            // Anything hit later than this step lies in cells of a later step
+            if (result.hit && result.time <= t1) {
+                return true;
+            }
+        }
+        return result.hit;
+    }
+
+    /**
+     * Cast a ray (a zero-size sweep) from (x0, y0) to (x1, y1); same answers as
+     * CollisionLayer.raycast
+     */
+    public boolean raycast(float x0, float y0, float x1, float y1, int mask, SweepResult result) {
+        return sweepRectangle(x0, y0, 0, 0, x1 - x0, y1 - y0, mask, result);
+    }
+
+    public boolean hasLineOfSight(float x0, float y0, float x1, float y1, SweepResult scratch) {
+        return !raycast(x0, y0, x1, y1, CollisionLayer.ALL_CATEGORIES, scratch);
+    }
+
+    /**
+     * Merged collision rectangles of this version, as new Rectangle copies
+     */
+    public Array<Rectangle> getCollisionRects() {
+        Array<Rectangle> rects = new Array<>();
+        for (CollisionChunk chunk : chunks) {
+            rects.addAll(chunk.getRects());
+        }
+        return rects;
+    }
+
+    public CollisionChunk getChunk(int chunkX, int chunkY) {
+        return chunks[chunkY * chunksX + chunkX];
+    }
+
+    private int getChunkColumn(float worldX) {
+        int cx = (int) Math.floor(worldX / chunkWorldWidth);
+        return Math.max(0, Math.min(cx, chunksX - 1));
+    }
+
+    private int getChunkRow(float worldY) {
+        int cy = (int) Math.floor(worldY / chunkWorldHeight);
+        return Math.max(0, Math.min(cy, chunksY - 1));
+    }
+
+    // Getters
+    public int getRevision() {
+        return revision;
+    }
+
+    public int getChunksX() {
+        return chunksX;
+    }
+
+    public int getChunksY() {
+        return chunksY;
+    }
+}
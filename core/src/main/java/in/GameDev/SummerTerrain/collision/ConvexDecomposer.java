@@ -0,0 +1,162 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.math.EarClippingTriangulator;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ShortArray;
+
+/**
+ * Splits a simple polygon into convex pieces.
+ * The polygon is ear-clipped into triangles, then neighbouring pieces are
+ * greedily re-joined across shared diagonals while the result stays convex
+ * (Hertel-Mehlhorn). This yields at most four times the optimal piece count
+ * and usually one to three pieces for tile collision shapes.
+ */
+public final class ConvexDecomposer {
+
+    private ConvexDecomposer() {
+    }
+
+    /**
+     * Decompose a polygon into convex pieces.
+     *
+     * @param polygon Packed x,y pairs in either winding order
+     * @return Convex pieces as packed x,y pairs in counter-clockwise order
+     */
+    public static Array<float[]> decompose(float[] polygon) {
+        Array<float[]> result = new Array<>();
+        int vertexCount = polygon.length / 2;
+        if (vertexCount < 3) {
+            return result;
+        }
+
+        float[] points = polygon.clone();
+        if (signedArea(points) < 0) {
+            reverse(points);
+        }
+
+        if (isConvex(points)) {
+            result.add(points);
+            return result;
+        }
+
+        // Pieces are lists of vertex indices, all counter-clockwise
+        Array<IntArray> pieces = new Array<>();
+        ShortArray triangles = new EarClippingTriangulator().computeTriangles(points);
+        for (int i = 0; i + 2 < triangles.size; i += 3) {
+            IntArray piece = new IntArray(3);
+            piece.add(triangles.get(i));
+            piece.add(triangles.get(i + 1));
+            piece.add(triangles.get(i + 2));
+            if (cross(points, piece.get(0), piece.get(1), piece.get(2)) < 0) {
+                piece.swap(1, 2);
+            }
+            pieces.add(piece);
+        }
+
+        // Join pieces across shared diagonals while the union stays convex
+        boolean joined = true;
+        while (joined) {
+            joined = false;
+            for (int i = 0; i < pieces.size && !joined; i++) {
+                for (int j = i + 1; j < pieces.size && !joined; j++) {
+                    IntArray merged = join(points, pieces.get(i), pieces.get(j));
+                    if (merged != null) {
+                        pieces.set(i, merged);
+                        pieces.removeIndex(j);
+                        joined = true;
+                    }
+                }
+            }
+        }
+
+        for (IntArray piece : pieces) {
+            float[] vertices = new float[piece.size * 2];
+            for (int i = 0; i < piece.size; i++) {
+                vertices[i * 2] = points[piece.get(i) * 2];
+                vertices[i * 2 + 1] = points[piece.get(i) * 2 + 1];
+            }
+            result.add(vertices);
+        }
+        return result;
+    }
+
+    /**
+     * Join two CCW pieces that share an edge (a->b in the first, b->a in the second).
+     * Returns null if they share no edge or the union would not be convex.
+     */
+    private static IntArray join(float[] points, IntArray first, IntArray second) {
+        for (int i = 0; i < first.size; i++) {
+            int a = first.get(i);
+            int b = first.get((i + 1) % first.size);
+
+            for (int j = 0; j < second.size; j++) {
+                if (second.get(j) != b || second.get((j + 1) % second.size) != a) continue;
+
+                // Walk the first piece from b round to a, then the second from a round to b
+                IntArray merged = new IntArray(first.size + second.size - 2);
+                for (int k = 0; k < first.size; k++) {
+                    merged.add(first.get((i + 1 + k) % first.size));
+                }
+                for (int k = 2; k < second.size; k++) {
+                    merged.add(second.get((j + k) % second.size));
+                }
+                return isConvex(points, merged) ? merged : null;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isConvex(float[] points, IntArray piece) {
+        int n = piece.size;
+        for (int i = 0; i < n; i++) {
+            if (cross(points, piece.get(i), piece.get((i + 1) % n), piece.get((i + 2) % n)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isConvex(float[] points) {
+        int n = points.length / 2;
+        for (int i = 0; i < n; i++) {
+            if (cross(points, i, (i + 1) % n, (i + 2) % n) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Z component of (b - a) x (c - b): positive for a left (CCW) turn
+     */
+    private static float cross(float[] points, int a, int b, int c) {
+        float abX = points[b * 2] - points[a * 2];
+        float abY = points[b * 2 + 1] - points[a * 2 + 1];
+        float bcX = points[c * 2] - points[b * 2];
+        float bcY = points[c * 2 + 1] - points[b * 2 + 1];
+        return abX * bcY - abY * bcX;
+    }
+
+    private static float signedArea(float[] points) {
+        float area = 0;
+        int n = points.length / 2;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            area += points[i * 2] * points[j * 2 + 1] - points[j * 2] * points[i * 2 + 1];
+        }
+        return area / 2;
+    }
+
+    private static void reverse(float[] points) {
+        int n = points.length / 2;
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            float x = points[i * 2];
+            float y = points[i * 2 + 1];
+            points[i * 2] = points[j * 2];
+            points[i * 2 + 1] = points[j * 2 + 1];
+            points[j * 2] = x;
+            points[j * 2 + 1] = y;
+        }
+    }
+}
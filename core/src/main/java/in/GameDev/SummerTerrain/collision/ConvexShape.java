@@ -0,0 +1,184 @@
+package in.GameDev.SummerTerrain.collision;
+
+/**
+ * Convex collision polygon in world coordinates with a cached bounding box.
+ * Vertices are packed x,y pairs in counter-clockwise order.
+ * The bounding box rejects most queries before the separating-axis test runs.
+ */
+public class ConvexShape {
+
+    private final float[] vertices;
+    private final int category;
+    private final float minX;
+    private final float minY;
+    private final float maxX;
+    private final float maxY;
+
+    public ConvexShape(float[] vertices) {
+        this(vertices, CollisionLayer.ALL_CATEGORIES);
+    }
+
+    /**
+     * @param category Category bits matched against query masks
+     */
+    public ConvexShape(float[] vertices, int category) {
+        if (vertices.length < 6) {
+            throw new IllegalArgumentException("A convex shape needs at least 3 vertices");
+        }
+        this.vertices = vertices;
+        this.category = category;
+
+        float x0 = Float.MAX_VALUE, y0 = Float.MAX_VALUE;
+        float x1 = -Float.MAX_VALUE, y1 = -Float.MAX_VALUE;
+        for (int i = 0; i < vertices.length; i += 2) {
+            x0 = Math.min(x0, vertices[i]);
+            y0 = Math.min(y0, vertices[i + 1]);
+            x1 = Math.max(x1, vertices[i]);
+            y1 = Math.max(y1, vertices[i + 1]);
+        }
+        this.minX = x0;
+        this.minY = y0;
+        this.maxX = x1;
+        this.maxY = y1;
+    }
+
+    /**
+     * Check if an axis-aligned rectangle overlaps this shape (touching edges do not count,
+     * same as Rectangle.overlaps). Bounding box first, then the polygon's edge normals.
+     */
+    public boolean overlapsRectangle(float x, float y, float width, float height) {
+        float rectMaxX = x + width;
+        float rectMaxY = y + height;
+        if (x >= maxX || rectMaxX <= minX || y >= maxY || rectMaxY <= minY) {
+            return false;
+        }
+
+        int count = vertices.length;
+        for (int i = 0; i < count; i += 2) {
+            int j = (i + 2) % count;
+            // Outward normal of a CCW edge
+            float axisX = vertices[j + 1] - vertices[i + 1];
+            float axisY = vertices[i] - vertices[j];
+
+            float polyMax = -Float.MAX_VALUE;
+            for (int k = 0; k < count; k += 2) {
+                polyMax = Math.max(polyMax, vertices[k] * axisX + vertices[k + 1] * axisY);
+            }
+
+            // Rectangle corner furthest against the normal
+            float rectMin = (axisX >= 0 ? x : rectMaxX) * axisX + (axisY >= 0 ? y : rectMaxY) * axisY;
+            if (rectMin >= polyMax) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sweep an axis-aligned box along (dx, dy) against this shape: the separating-axis
+     * test with velocity. The box overlaps the shape while its projections overlap on
+     * every axis, so the contact time is the latest entry over the box axes and edge normals.
+     * Boxes already overlapping at the start are ignored so a stuck entity can walk out.
+     *
+     * @return true if an earlier contact was recorded in the result
+     */
+    public boolean sweepRectangle(float x, float y, float width, float height,
+                                  float dx, float dy, SweepResult result) {
+        float enterX = SweptAxis.entryTime(x, x + width, minX, maxX, dx);
+        float enterY = SweptAxis.entryTime(y, y + height, minY, maxY, dy);
+        float enter = Math.max(enterX, enterY);
+        float exit = Math.min(SweptAxis.exitTime(x, x + width, minX, maxX, dx),
+                              SweptAxis.exitTime(y, y + height, minY, maxY, dy));
+        float normalX = enterX > enterY ? (dx > 0 ? -1 : 1) : 0;
+        float normalY = enterX > enterY ? 0 : (dy > 0 ? -1 : 1);
+        if (enter > 1 || enter >= exit) {
+            return false;
+        }
+
+        int count = vertices.length;
+        for (int i = 0; i < count; i += 2) {
+            int j = (i + 2) % count;
+            float axisX = vertices[j + 1] - vertices[i + 1];
+            float axisY = vertices[i] - vertices[j];
+            float length = (float) Math.sqrt(axisX * axisX + axisY * axisY);
+            if (length == 0) continue;
+            axisX /= length;
+            axisY /= length;
+
+            float shapeMin = Float.MAX_VALUE;
+            float shapeMax = -Float.MAX_VALUE;
+            for (int k = 0; k < count; k += 2) {
+                float projection = vertices[k] * axisX + vertices[k + 1] * axisY;
+                shapeMin = Math.min(shapeMin, projection);
+                shapeMax = Math.max(shapeMax, projection);
+            }
+
+            float rectMaxX = x + width;
+            float rectMaxY = y + height;
+            float boxMin = (axisX >= 0 ? x : rectMaxX) * axisX + (axisY >= 0 ? y : rectMaxY) * axisY;
+            float boxMax = (axisX >= 0 ? rectMaxX : x) * axisX + (axisY >= 0 ? rectMaxY : y) * axisY;
+            float velocity = dx * axisX + dy * axisY;
+
+            float axisEnter = SweptAxis.entryTime(boxMin, boxMax, shapeMin, shapeMax, velocity);
+            if (axisEnter > enter) {
+                enter = axisEnter;
+                normalX = velocity > 0 ? -axisX : axisX;
+                normalY = velocity > 0 ? -axisY : axisY;
+            }
+            exit = Math.min(exit, SweptAxis.exitTime(boxMin, boxMax, shapeMin, shapeMax, velocity));
+            if (enter > 1 || enter >= exit) {
+                return false;
+            }
+        }
+
+        if (enter < 0) {
+            return false;
+        }
+        return result.offer(enter, normalX, normalY);
+    }
+
+    /**
+     * Check if a point lies inside or on the edge of this shape
+     */
+    public boolean contains(float px, float py) {
+        if (px < minX || px > maxX || py < minY || py > maxY) {
+            return false;
+        }
+
+        int count = vertices.length;
+        for (int i = 0; i < count; i += 2) {
+            int j = (i + 2) % count;
+            float edgeX = vertices[j] - vertices[i];
+            float edgeY = vertices[j + 1] - vertices[i + 1];
+            if (edgeX * (py - vertices[i + 1]) - edgeY * (px - vertices[i]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Getters
+    public float[] getVertices() {
+        return vertices;
+    }
+
+    public int getCategory() {
+        return category;
+    }
+
+    public float getMinX() {
+        return minX;
+    }
+
+    public float getMinY() {
+        return minY;
+    }
+
+    public float getMaxX() {
+        return maxX;
+    }
+
+    public float getMaxY() {
+        return maxY;
+    }
+}
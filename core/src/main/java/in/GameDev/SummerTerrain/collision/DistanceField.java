@@ -0,0 +1,226 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Signed distance field of the collision shapes on a regular grid (one or
+ * more cells per tile). Each cell stores the distance from its centre to the
+ * nearest blocked cell centre, or minus the distance to the nearest free one
+ * inside obstacles. Built with the linear-time Euclidean distance transform
+ * of Felzenszwalb and Huttenlocher (lower envelope of parabolas), run over
+ * columns and then rows.
+ *
+ * Clearance steering and circle tests then read one or four cells instead of
+ * scanning shapes. The field is a snapshot of the shapes at build time:
+ * rebuild it after runtime tile edits.
+ */
+public class DistanceField {
+
+    private static final double FAR = Double.MAX_VALUE;
+
+    private final float cellWidth;
+    private final float cellHeight;
+    private final int columns;
+    private final int rows;
+
+    // Row-major signed distances in world units
+    private final float[] distances;
+
+    /**
+     * @param cellsPerTile Grid cells per tile edge; 1 gives tile resolution
+     * @param mask         Only shapes whose category shares a bit with this count as obstacles
+     */
+    public DistanceField(CollisionLayer layer, int cellsPerTile, int mask) {
+        if (cellsPerTile < 1) {
+            throw new IllegalArgumentException("Cells per tile must be positive, got " + cellsPerTile);
+        }
+        this.cellWidth = (float) layer.getTileWidth() / cellsPerTile;
+        this.cellHeight = (float) layer.getTileHeight() / cellsPerTile;
+        this.columns = layer.getMapWidthInTiles() * cellsPerTile;
+        this.rows = layer.getMapHeightInTiles() * cellsPerTile;
+        this.distances = new float[columns * rows];
+
+        // A cell is blocked when any shape overlaps it
+        boolean[] blocked = new boolean[columns * rows];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                blocked[row * columns + col] = layer.isRectangleBlocked(
+                    col * cellWidth, row * cellHeight, cellWidth, cellHeight, mask);
+            }
+        }
+
+        double[] toBlocked = squaredDistances(blocked, true);
+        double[] toFree = squaredDistances(blocked, false);
+        // Kept finite (a map without obstacles is Float.MAX_VALUE away from one) so interpolation stays defined
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = blocked[i]
+                ? -(float) Math.min(Math.sqrt(toFree[i]), Float.MAX_VALUE)
+                : (float) Math.min(Math.sqrt(toBlocked[i]), Float.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Squared distance from every cell centre to the nearest cell whose blocked flag equals the target
+     */
+    private double[] squaredDistances(boolean[] blocked, boolean target) {
+        double[] grid = new double[columns * rows];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = blocked[i] == target ? 0 : FAR;
+        }
+
+        int length = Math.max(columns, rows);
+        double[] line = new double[length];
+        double[] out = new double[length];
+        int[] sites = new int[length];
+        double[] bounds = new double[length + 1];
+
+        // Columns
+        for (int col = 0; col < columns; col++) {
+            for (int row = 0; row < rows; row++) {
+                line[row] = grid[row * columns + col];
+            }
+            transform(line, rows, cellHeight, out, sites, bounds);
+            for (int row = 0; row < rows; row++) {
+                grid[row * columns + col] = out[row];
+            }
+        }
+
+        // Rows
+        for (int row = 0; row < rows; row++) {
+            System.arraycopy(grid, row * columns, line, 0, columns);
+            transform(line, columns, cellWidth, out, sites, bounds);
+            System.arraycopy(out, 0, grid, row * columns, columns);
+        }
+        return grid;
+    }
+
+    /**
+     * 1D distance transform: out[q] = min over p of (spacing * (q - p))^2 + f[p],
+     * from the lower envelope of the parabolas rooted at the finite samples
+     */
+    private static void transform(double[] f, int n, float spacing, double[] out, int[] sites, double[] bounds) {
+        int k = -1;
+        for (int q = 0; q < n; q++) {
+            if (f[q] == FAR) continue;
+            double position = (double) q * spacing;
+            double start = -FAR;
+            while (k >= 0) {
+                double site = (double) sites[k] * spacing;
+                start = ((f[q] + position * position) - (f[sites[k]] + site * site)) / (2 * (position - site));
+                if (start <= bounds[k]) {
+                    k--;
+                } else {
+                    break;
+                }
+            }
+            k++;
+            sites[k] = q;
+            bounds[k] = k == 0 ? -FAR : start;
+            bounds[k + 1] = FAR;
+        }
+
+        if (k < 0) {
+            for (int q = 0; q < n; q++) {
+                out[q] = FAR;
+            }
+            return;
+        }
+
+        int j = 0;
+        for (int q = 0; q < n; q++) {
+            double position = (double) q * spacing;
+            while (bounds[j + 1] < position) {
+                j++;
+            }
+            double offset = position - (double) sites[j] * spacing;
+            out[q] = offset * offset + f[sites[j]];
+        }
+    }
+
+    /**
+     * Signed distance stored for the cell containing a point (clamped to the map)
+     */
+    public float getCellDistance(float x, float y) {
+        return distances[clampRow(y) * columns + clampColumn(x)];
+    }
+
+    /**
+     * Signed distance at a point, bilinearly interpolated between cell centres.
+     * Smooth enough for steering; use isCircleFree for guarantees.
+     */
+    public float getDistance(float x, float y) {
+        float gx = x / cellWidth - 0.5f;
+        float gy = y / cellHeight - 0.5f;
+        int col = (int) Math.floor(gx);
+        int row = (int) Math.floor(gy);
+        float fx = gx - col;
+        float fy = gy - row;
+
+        float d00 = getValue(col, row);
+        float d10 = getValue(col + 1, row);
+        float d01 = getValue(col, row + 1);
+        float d11 = getValue(col + 1, row + 1);
+        float bottom = d00 + (d10 - d00) * fx;
+        float top = d01 + (d11 - d01) * fx;
+        return bottom + (top - bottom) * fy;
+    }
+
+    /**
+     * Direction of increasing clearance at a point (unit length, or zero on a plateau)
+     *
+     * @return out
+     */
+    public Vector2 getGradient(float x, float y, Vector2 out) {
+        float gx = getDistance(x + cellWidth, y) - getDistance(x - cellWidth, y);
+        float gy = getDistance(x, y + cellHeight) - getDistance(x, y - cellHeight);
+        float length = (float) Math.sqrt(gx * gx + gy * gy);
+        if (length == 0) {
+            return out.set(0, 0);
+        }
+        return out.set(gx / length, gy / length);
+    }
+
+    /**
+     * True if a circle certainly touches no obstacle. Distances are measured
+     * between cell centres, so one cell diagonal is taken off the stored value;
+     * a false answer means the circle may touch one.
+     */
+    public boolean isCircleFree(float x, float y, float radius) {
+        float diagonal = (float) Math.sqrt(cellWidth * cellWidth + cellHeight * cellHeight);
+        return getCellDistance(x, y) - diagonal >= radius;
+    }
+
+    /**
+     * Stored signed distance of a cell (clamped to the grid)
+     */
+    public float getValue(int column, int row) {
+        column = Math.max(0, Math.min(column, columns - 1));
+        row = Math.max(0, Math.min(row, rows - 1));
+        return distances[row * columns + column];
+    }
+
+    private int clampColumn(float x) {
+        return Math.max(0, Math.min((int) Math.floor(x / cellWidth), columns - 1));
+    }
+
+    private int clampRow(float y) {
+        return Math.max(0, Math.min((int) Math.floor(y / cellHeight), rows - 1));
+    }
+
+    // Getters
+    public float getCellWidth() {
+        return cellWidth;
+    }
+
+    public float getCellHeight() {
+        return cellHeight;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+}
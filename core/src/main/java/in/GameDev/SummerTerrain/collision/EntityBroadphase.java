@@ -0,0 +1,214 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Sort-and-sweep broadphase for moving entity boxes (player, NPCs, projectiles).
+ * Bodies are kept sorted by their left edge; each frame the previous order is
+ * repaired with an insertion sort, which is close to linear because entities
+ * only move a little between frames. The sweep then only compares bodies whose
+ * X intervals overlap, instead of every pair.
+ *
+ * Typical frame: update() every body that moved, then findPairs() and resolve
+ * the reported pairs.
+ */
+public class EntityBroadphase {
+
+    // Per body id
+    private float[] minX;
+    private float[] minY;
+    private float[] maxX;
+    private float[] maxY;
+    private boolean[] active;
+
+    // Active body ids sorted by minX, kept between frames
+    private int[] order;
+    private int orderSize;
+    private boolean removedSinceSort;
+
+    private final IntArray freeIds = new IntArray();
+    private int idCount;
+    private int bodyCount;
+
+    // Widest body, so a box query knows how far left to start scanning
+    private float maxWidth;
+
+    public EntityBroadphase(int capacity) {
+        capacity = Math.max(capacity, 1);
+        minX = new float[capacity];
+        minY = new float[capacity];
+        maxX = new float[capacity];
+        maxY = new float[capacity];
+        active = new boolean[capacity];
+        order = new int[capacity];
+    }
+
+    /**
+     * Add a body
+     *
+     * @return Body id, stable until the body is removed
+     */
+    public int add(float x, float y, float width, float height) {
+        int id;
+        if (freeIds.size > 0) {
+            // A recycled id must leave the order before it is appended again
+            compact();
+            id = freeIds.pop();
+        } else {
+            if (idCount == minX.length) {
+                grow(idCount * 2);
+            }
+            id = idCount++;
+        }
+        active[id] = true;
+        set(id, x, y, width, height);
+        order[orderSize++] = id;
+        bodyCount++;
+        return id;
+    }
+
+    /**
+     * Move or resize a body
+     */
+    public void update(int id, float x, float y, float width, float height) {
+        set(id, x, y, width, height);
+    }
+
+    /**
+     * Remove a body; its id may be handed out again by add()
+     */
+    public void remove(int id) {
+        if (!active[id]) return;
+        active[id] = false;
+        freeIds.add(id);
+        bodyCount--;
+        removedSinceSort = true;
+    }
+
+    private void set(int id, float x, float y, float width, float height) {
+        minX[id] = x;
+        minY[id] = y;
+        maxX[id] = x + width;
+        maxY[id] = y + height;
+        maxWidth = Math.max(maxWidth, width);
+    }
+
+    /**
+     * Collect every pair of overlapping bodies (touching does not count).
+     *
+     * @param outPairs Receives the ids of each pair, two entries per pair
+     * @return Number of pairs found
+     */
+    public int findPairs(IntArray outPairs) {
+        sort();
+
+        int pairs = 0;
+        for (int i = 0; i < orderSize; i++) {
+            int a = order[i];
+            float aMaxX = maxX[a];
+            for (int j = i + 1; j < orderSize; j++) {
+                int b = order[j];
+                if (minX[b] >= aMaxX) {
+                    break;
+                }
+                if (minY[a] < maxY[b] && minY[b] < maxY[a]) {
+                    outPairs.add(a, b);
+                    pairs++;
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Check a box against all bodies, e.g. before moving an entity
+     *
+     * @param ignoreId Body to skip (usually the one being moved), or -1
+     */
+    public boolean overlaps(float x, float y, float width, float height, int ignoreId) {
+        sort();
+
+        float queryMaxX = x + width;
+        float queryMaxY = y + height;
+        for (int i = firstAtOrAfter(x - maxWidth); i < orderSize; i++) {
+            int b = order[i];
+            if (minX[b] >= queryMaxX) {
+                break;
+            }
+            if (b != ignoreId && maxX[b] > x && minY[b] < queryMaxY && maxY[b] > y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Index of the first body in sort order whose minX is at least the value
+     */
+    private int firstAtOrAfter(float value) {
+        int low = 0;
+        int high = orderSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (minX[order[mid]] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Drop removed bodies from the order
+     */
+    private void compact() {
+        if (!removedSinceSort) return;
+        int kept = 0;
+        for (int i = 0; i < orderSize; i++) {
+            if (active[order[i]]) {
+                order[kept++] = order[i];
+            }
+        }
+        orderSize = kept;
+        removedSinceSort = false;
+    }
+
+    /**
+     * Insertion sort by minX. Nearly sorted input (last frame's order) makes
+     * this close to linear.
+     */
+    private void sort() {
+        compact();
+        for (int i = 1; i < orderSize; i++) {
+            int id = order[i];
+            float key = minX[id];
+            int j = i - 1;
+            while (j >= 0 && minX[order[j]] > key) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = id;
+        }
+    }
+
+    private void grow(int capacity) {
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        active = Arrays.copyOf(active, capacity);
+        order = Arrays.copyOf(order, capacity);
+    }
+
+    // Getters
+    public int getBodyCount() {
+        return bodyCount;
+    }
+
+    public boolean isActive(int id) {
+        return id >= 0 && id < idCount && active[id];
+    }
+}
@@ -0,0 +1,181 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Configuration-space occupancy for one box size: a bit per box origin cell,
+ * set when a box of that size placed anywhere in the cell could overlap a
+ * shape. The shapes are rasterised and then Minkowski-inflated by the box
+ * size, so testing a box becomes a single bit lookup of its origin.
+ *
+ * The grid is conservative: a clear bit means the box is certainly free, a
+ * set bit means it may touch a shape (at most about two cells away), so
+ * isBlockedExact() confirms set bits with the exact test.
+ *
+ * Built lazily per chunk and kept until a runtime edit touches the chunk's
+ * shapes. Get instances from CollisionLayer.getInflatedGrid.
+ */
+public class InflatedOccupancyGrid implements CollisionChangeListener {
+
+    private final CollisionLayer layer;
+    private final float width;
+    private final float height;
+    private final int mask;
+    private final float cellSize;
+
+    // Cells of shape raster the box reaches beyond its origin cell
+    private final int extraColumns;
+    private final int extraRows;
+
+    // Chunks whose shapes can reach a block's boxes, beyond the block's own chunk
+    private final int reachChunksX;
+    private final int reachChunksY;
+
+    // One inflated raster per chunk, covering the origins inside that chunk
+    private final AtomicReferenceArray<SubTileRaster> blocks;
+    private int blocksBuilt;
+
+    // Bumped by edits, so a block built from shapes that changed meanwhile is not kept
+    private int generation;
+
+    InflatedOccupancyGrid(CollisionLayer layer, float width, float height, int mask, float cellSize) {
+        this.layer = layer;
+        this.width = width;
+        this.height = height;
+        this.mask = mask;
+        this.cellSize = cellSize;
+        this.extraColumns = (int) Math.ceil(width / cellSize);
+        this.extraRows = (int) Math.ceil(height / cellSize);
+        float chunkWidth = layer.getChunkSize() * layer.getTileWidth();
+        float chunkHeight = layer.getChunkSize() * layer.getTileHeight();
+        this.reachChunksX = (int) Math.ceil((width + cellSize) / chunkWidth);
+        this.reachChunksY = (int) Math.ceil((height + cellSize) / chunkHeight);
+        this.blocks = new AtomicReferenceArray<>(layer.getChunksX() * layer.getChunksY());
+    }
+
+    /**
+     * Conservative test of a box of this grid's size at (x, y): false means
+     * certainly free, true means possibly blocked
+     */
+    public boolean isBlocked(float x, float y) {
+        if (x < 0 || y < 0 || x >= layer.getMapWidthInTiles() * layer.getTileWidth()
+            || y >= layer.getMapHeightInTiles() * layer.getTileHeight()) {
+            // Origins outside the map are not rasterised
+            return true;
+        }
+        int cx = layer.getChunkColumn(x);
+        int cy = layer.getChunkRow(y);
+        SubTileRaster block = blocks.get(cy * layer.getChunksX() + cx);
+        if (block == null) {
+            block = buildBlock(cx, cy);
+        }
+        return block.isSetAt(x, y);
+    }
+
+    /**
+     * Exact test of a box of this grid's size at (x, y), answered by the grid
+     * alone wherever it is clear
+     */
+    public boolean isBlockedExact(float x, float y) {
+        return isBlocked(x, y) && layer.isRectangleBlocked(x, y, width, height, mask);
+    }
+
+    /**
+     * Rasterise the shapes every box with its origin in the chunk can reach,
+     * then inflate them by the box size
+     */
+    private SubTileRaster buildBlock(int cx, int cy) {
+        int startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+        float chunkWidth = layer.getChunkSize() * layer.getTileWidth();
+        float chunkHeight = layer.getChunkSize() * layer.getTileHeight();
+        float originX = cx * chunkWidth;
+        float originY = cy * chunkHeight;
+        int columns = (int) Math.ceil(chunkWidth / cellSize);
+        int rows = (int) Math.ceil(chunkHeight / cellSize);
+
+        SubTileRaster shapes = new SubTileRaster(originX, originY, columns + extraColumns, rows + extraRows,
+            cellSize, cellSize);
+        float reachMaxX = originX + (columns + extraColumns) * cellSize;
+        float reachMaxY = originY + (rows + extraRows) * cellSize;
+        int maxCX = Math.min(cx + reachChunksX, layer.getChunksX() - 1);
+        int maxCY = Math.min(cy + reachChunksY, layer.getChunksY() - 1);
+        for (int y = cy; y <= maxCY; y++) {
+            for (int x = cx; x <= maxCX; x++) {
+                rasterise(layer.getChunk(x, y), shapes, originX, originY, reachMaxX, reachMaxY);
+            }
+        }
+
+        SubTileRaster block = shapes.inflate(extraColumns, extraRows);
+        synchronized (this) {
+            if (generation == startGeneration) {
+                blocks.set(cy * layer.getChunksX() + cx, block);
+            }
+            blocksBuilt++;
+        }
+        return block;
+    }
+
+    private void rasterise(CollisionChunk chunk, SubTileRaster out,
+                           float minX, float minY, float maxX, float maxY) {
+        float[] rectMinX = chunk.getRectMinX();
+        float[] rectMinY = chunk.getRectMinY();
+        float[] rectMaxX = chunk.getRectMaxX();
+        float[] rectMaxY = chunk.getRectMaxY();
+        int[] rectCategory = chunk.getRectCategory();
+        for (int i = 0; i < chunk.getRectCount(); i++) {
+            if ((rectCategory[i] & mask) != 0
+                && rectMinX[i] < maxX && rectMaxX[i] > minX && rectMinY[i] < maxY && rectMaxY[i] > minY) {
+                out.addRectangle(rectMinX[i], rectMinY[i], rectMaxX[i], rectMaxY[i]);
+            }
+        }
+
+        Array<ConvexShape> polygons = chunk.getPolygons();
+        for (int i = 0; i < polygons.size; i++) {
+            ConvexShape shape = polygons.get(i);
+            if ((shape.getCategory() & mask) != 0
+                && shape.getMinX() < maxX && shape.getMaxX() > minX
+                && shape.getMinY() < maxY && shape.getMaxY() > minY) {
+                out.addPolygon(shape);
+            }
+        }
+    }
+
+    /**
+     * Drop the blocks whose boxes can reach the edited chunk
+     */
+    @Override
+    public synchronized void chunkChanged(int chunkX, int chunkY) {
+        generation++;
+        for (int cy = Math.max(chunkY - reachChunksY, 0); cy <= chunkY; cy++) {
+            for (int cx = Math.max(chunkX - reachChunksX, 0); cx <= chunkX; cx++) {
+                blocks.set(cy * layer.getChunksX() + cx, null);
+            }
+        }
+    }
+
+    // Getters
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public synchronized int getBlocksBuilt() {
+        return blocksBuilt;
+    }
+}
@@ -0,0 +1,87 @@
+package in.GameDev.SummerTerrain.collision;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays line-of-sight checks, answered in one
+ * CollisionLayer.hasLineOfSight(batch, cache) call. Check i is described by
+ * index i of every input array; its answer is written to visible[i].
+ * Checks that name an observer and target id can be answered from a
+ * LineOfSightCache when the same pair was already checked this frame.
+ * Reuse one batch across frames: clear() keeps the arrays.
+ */
+public class LineOfSightBatch {
+
+    // Marks a check that should not be cached
+    public static final int NO_ID = -1;
+
+    // Inputs: observer / target ids and the segment between them
+    public int[] observerId;
+    public int[] targetId;
+    public float[] fromX;
+    public float[] fromY;
+    public float[] toX;
+    public float[] toY;
+
+    // Output
+    public boolean[] visible;
+
+    public int size;
+
+    public LineOfSightBatch(int capacity) {
+        capacity = Math.max(capacity, 1);
+        observerId = new int[capacity];
+        targetId = new int[capacity];
+        fromX = new float[capacity];
+        fromY = new float[capacity];
+        toX = new float[capacity];
+        toY = new float[capacity];
+        visible = new boolean[capacity];
+    }
+
+    /**
+     * Append an uncached check
+     *
+     * @return Index of the check in the batch
+     */
+    public int add(float x0, float y0, float x1, float y1) {
+        return add(NO_ID, NO_ID, x0, y0, x1, y1);
+    }
+
+    /**
+     * Append a check between two entities
+     *
+     * @return Index of the check in the batch
+     */
+    public int add(int observer, int target, float x0, float y0, float x1, float y1) {
+        if (size == fromX.length) {
+            ensureCapacity(size * 2);
+        }
+        int index = size++;
+        observerId[index] = observer;
+        targetId[index] = target;
+        fromX[index] = x0;
+        fromY[index] = y0;
+        toX[index] = x1;
+        toY[index] = y1;
+        return index;
+    }
+
+    /**
+     * Grow every array to hold at least the given number of checks
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= fromX.length) return;
+        observerId = Arrays.copyOf(observerId, capacity);
+        targetId = Arrays.copyOf(targetId, capacity);
+        fromX = Arrays.copyOf(fromX, capacity);
+        fromY = Arrays.copyOf(fromY, capacity);
+        toX = Arrays.copyOf(toX, capacity);
+        toY = Arrays.copyOf(toY, capacity);
+        visible = Arrays.copyOf(visible, capacity);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,59 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Line-of-sight answers for observer/target pairs, valid for one frame.
+ * Several systems asking whether the same guard sees the player in the same
+ * tick then share one raycast. Call beginFrame() once per tick, since the
+ * entities move between frames. Not thread-safe.
+ */
+public class LineOfSightCache {
+
+    private final LongMap<Boolean> results = new LongMap<>();
+    private int hits;
+    private int misses;
+
+    /**
+     * Forget all answers from the previous frame
+     */
+    public void beginFrame() {
+        results.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Cached answer for a pair, or null if the pair was not checked this frame
+     */
+    public Boolean get(int observerId, int targetId) {
+        Boolean visible = results.get(key(observerId, targetId));
+        if (visible != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return visible;
+    }
+
+    public void put(int observerId, int targetId, boolean visible) {
+        results.put(key(observerId, targetId), visible ? Boolean.TRUE : Boolean.FALSE);
+    }
+
+    private static long key(int observerId, int targetId) {
+        return ((long) observerId << 32) | (targetId & 0xffffffffL);
+    }
+
+    // Getters
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    public int size() {
+        return results.size;
+    }
+}
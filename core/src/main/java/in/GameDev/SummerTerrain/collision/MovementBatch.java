@@ -0,0 +1,77 @@
+package in.GameDev.SummerTerrain.collision;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays movement requests for many entities, resolved in one
+ * CollisionHandler.resolveMovements call. Entity i is described by index i
+ * of every input array; its allowed position is written to resolvedX/Y[i].
+ * Reuse one batch across frames: clear() keeps the arrays.
+ */
+public class MovementBatch {
+
+    // Inputs: current box position, desired box position, box size
+    public float[] x;
+    public float[] y;
+    public float[] targetX;
+    public float[] targetY;
+    public float[] width;
+    public float[] height;
+
+    // Outputs
+    public float[] resolvedX;
+    public float[] resolvedY;
+
+    public int size;
+
+    public MovementBatch(int capacity) {
+        capacity = Math.max(capacity, 1);
+        x = new float[capacity];
+        y = new float[capacity];
+        targetX = new float[capacity];
+        targetY = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+        resolvedX = new float[capacity];
+        resolvedY = new float[capacity];
+    }
+
+    /**
+     * Append one entity's move
+     *
+     * @return Index of the entity in the batch
+     */
+    public int add(float currentX, float currentY, float desiredX, float desiredY,
+                   float boxWidth, float boxHeight) {
+        if (size == x.length) {
+            ensureCapacity(size * 2);
+        }
+        int index = size++;
+        x[index] = currentX;
+        y[index] = currentY;
+        targetX[index] = desiredX;
+        targetY[index] = desiredY;
+        width[index] = boxWidth;
+        height[index] = boxHeight;
+        return index;
+    }
+
+    /**
+     * Grow every array to hold at least the given number of entities
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= x.length) return;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        targetX = Arrays.copyOf(targetX, capacity);
+        targetY = Arrays.copyOf(targetY, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        resolvedX = Arrays.copyOf(resolvedX, capacity);
+        resolvedY = Arrays.copyOf(resolvedY, capacity);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,182 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Comparator;
+
+/**
+ * Load-time optimisation pass for collision rectangles.
+ * Drops duplicates and rectangles fully inside another one, then greedily
+ * merges rows and columns of abutting rectangles into maximal rectangles.
+ *
+ * Edges closer than the tolerance count as touching, so tiles whose shapes
+ * stop a fraction of a pixel short of the tile border (e.g. 31.9 of 32px)
+ * still merge into one wall.
+ */
+public final class RectangleMerger {
+
+    // Largest first, so containers are kept before what they contain
+    private static final Comparator<Rectangle> BY_AREA_DESCENDING =
+        (a, b) -> Float.compare(b.width * b.height, a.width * a.height);
+
+    private RectangleMerger() {
+    }
+
+    /**
+     * Merge rectangles until no pass makes progress.
+     *
+     * @param rects     Rectangles to merge (not modified)
+     * @param tolerance Distance under which edges are treated as coincident
+     * @return New array holding the merged rectangles
+     */
+    public static Array<Rectangle> merge(Array<Rectangle> rects, float tolerance) {
+        Array<Rectangle> result = new Array<>(rects.size);
+        for (Rectangle rect : rects) {
+            result.add(new Rectangle(rect));
+        }
+
+        int previous;
+        do {
+            previous = result.size;
+            result = removeContained(result, tolerance);
+            result = mergeRuns(result, true, tolerance);
+            result = mergeRuns(result, false, tolerance);
+        } while (result.size < previous);
+
+        return result;
+    }
+
+    /**
+     * Drop duplicates and rectangles that lie inside a larger one.
+     * Any container must cover the candidate's centre, so only the kept
+     * rectangles bucketed in that one grid cell need checking.
+     */
+    private static Array<Rectangle> removeContained(Array<Rectangle> rects, float tolerance) {
+        if (rects.size < 2) return rects;
+
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        float cellSize = 0;
+        for (Rectangle rect : rects) {
+            minX = Math.min(minX, rect.x);
+            minY = Math.min(minY, rect.y);
+            maxX = Math.max(maxX, rect.x + rect.width);
+            maxY = Math.max(maxY, rect.y + rect.height);
+            cellSize += Math.max(rect.width, rect.height);
+        }
+        cellSize = Math.max(cellSize / rects.size, 1f);
+
+        int columns = Math.max((int) Math.ceil((maxX - minX) / cellSize), 1);
+        int rows = Math.max((int) Math.ceil((maxY - minY) / cellSize), 1);
+        SpatialHashGrid kept = new SpatialHashGrid(minX, minY, columns, rows, cellSize, cellSize);
+
+        rects.sort(BY_AREA_DESCENDING);
+        Array<Rectangle> result = new Array<>(rects.size);
+
+        for (Rectangle rect : rects) {
+            float centerX = rect.x + rect.width / 2;
+            float centerY = rect.y + rect.height / 2;
+            IntArray bucket = kept.getBucket(kept.getColumn(centerX), kept.getRow(centerY));
+
+            boolean contained = false;
+            if (bucket != null) {
+                for (int i = 0; i < bucket.size && !contained; i++) {
+                    contained = contains(result.get(bucket.items[i]), rect, tolerance);
+                }
+            }
+
+            if (!contained) {
+                kept.insert(result.size, rect.x, rect.y, rect.width, rect.height);
+                result.add(rect);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * One sweep over rectangles sorted into bands: consecutive rectangles in the
+     * same band that touch or overlap along the band are joined.
+     */
+    private static Array<Rectangle> mergeRuns(Array<Rectangle> rects, boolean horizontal, float tolerance) {
+        if (rects.size < 2) return rects;
+
+        rects.sort(bandOrder(horizontal, tolerance));
+        Array<Rectangle> result = new Array<>(rects.size);
+        Rectangle current = rects.first();
+
+        for (int i = 1; i < rects.size; i++) {
+            Rectangle next = rects.get(i);
+
+            // Rectangles of neighbouring quantised bands can still be sameBand, so check both ends of the gap
+            boolean joined = horizontal
+                ? sameBand(current.y, current.height, next.y, next.height, tolerance)
+                    && reaches(current.x, current.width, next.x, next.width, tolerance)
+                : sameBand(current.x, current.width, next.x, next.width, tolerance)
+                    && reaches(current.y, current.height, next.y, next.height, tolerance);
+
+            if (joined) {
+                float minX = Math.min(current.x, next.x);
+                float minY = Math.min(current.y, next.y);
+                float maxX = Math.max(current.x + current.width, next.x + next.width);
+                float maxY = Math.max(current.y + current.height, next.y + next.height);
+                current.set(minX, minY, maxX - minX, maxY - minY);
+            } else {
+                result.add(current);
+                current = next;
+            }
+        }
+        result.add(current);
+        return result;
+    }
+
+    /**
+     * Sort into row bands (y, top edge) or column bands (x, right edge), quantised
+     * to the tolerance, then along the band; so rectangles within tolerance of the
+     * same band are consecutive and in order, never with one far behind another.
+     */
+    private static Comparator<Rectangle> bandOrder(boolean horizontal, float tolerance) {
+        final float quantum = Math.max(tolerance, 0f);
+        if (horizontal) {
+            return (a, b) -> {
+                int band = compareBand(a.y, a.height, b.y, b.height, quantum);
+                return band != 0 ? band : Float.compare(a.x, b.x);
+            };
+        }
+        return (a, b) -> {
+            int band = compareBand(a.x, a.width, b.x, b.width, quantum);
+            return band != 0 ? band : Float.compare(a.y, b.y);
+        };
+    }
+
+    private static int compareBand(float start1, float size1, float start2, float size2, float quantum) {
+        int start = compareQuantised(start1, start2, quantum);
+        if (start != 0) return start;
+        return compareQuantised(start1 + size1, start2 + size2, quantum);
+    }
+
+    private static int compareQuantised(float a, float b, float quantum) {
+        if (quantum == 0) return Float.compare(a, b);
+        return Long.compare(Math.round((double) a / quantum), Math.round((double) b / quantum));
+    }
+
+    /**
+     * Whether two spans along a band touch or overlap, within tolerance
+     */
+    private static boolean reaches(float start1, float size1, float start2, float size2, float tolerance) {
+        return start2 <= start1 + size1 + tolerance && start2 + size2 >= start1 - tolerance;
+    }
+
+    private static boolean sameBand(float start1, float size1, float start2, float size2, float tolerance) {
+        return Math.abs(start1 - start2) <= tolerance
+            && Math.abs((start1 + size1) - (start2 + size2)) <= tolerance;
+    }
+
+    private static boolean contains(Rectangle outer, Rectangle inner, float tolerance) {
+        return inner.x >= outer.x - tolerance
+            && inner.y >= outer.y - tolerance
+            && inner.x + inner.width <= outer.x + outer.width + tolerance
+            && inner.y + inner.height <= outer.y + outer.height + tolerance;
+    }
+}
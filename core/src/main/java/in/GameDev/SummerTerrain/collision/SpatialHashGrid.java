@@ -0,0 +1,118 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Uniform grid of cell buckets covering a fixed world region.
+ * Each bucket holds the indices of the shapes whose bounds touch that cell,
+ * so a query only has to test the shapes stored in the cells it overlaps.
+ * Shapes (and queries) reaching outside the region are clamped to the border cells.
+ */
+public class SpatialHashGrid {
+
+    private final float originX;
+    private final float originY;
+    private final float cellWidth;
+    private final float cellHeight;
+    private final int columns;
+    private final int rows;
+
+    // One bucket per cell, row-major; allocated on first insert
+    private final IntArray[] buckets;
+    private int entryCount;
+
+    public SpatialHashGrid(float originX, float originY, int columns, int rows,
+                           float cellWidth, float cellHeight) {
+        if (columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Grid must have at least one cell: " + columns + "x" + rows);
+        }
+        this.originX = originX;
+        this.originY = originY;
+        this.columns = columns;
+        this.rows = rows;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.buckets = new IntArray[columns * rows];
+    }
+
+    /**
+     * Add a shape index to every cell its bounds touch
+     */
+    public void insert(int index, float x, float y, float width, float height) {
+        int minCol = getColumn(x);
+        int maxCol = getColumn(x + width);
+        int minRow = getRow(y);
+        int maxRow = getRow(y + height);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                int cell = row * columns + col;
+                IntArray bucket = buckets[cell];
+                if (bucket == null) {
+                    bucket = new IntArray(4);
+                    buckets[cell] = bucket;
+                }
+                bucket.add(index);
+                entryCount++;
+            }
+        }
+    }
+
+    /**
+     * Drop all buckets
+     */
+    public void clear() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = null;
+        }
+        entryCount = 0;
+    }
+
+    /**
+     * Column containing a world X coordinate, clamped to the grid
+     */
+    public int getColumn(float worldX) {
+        int col = (int) Math.floor((worldX - originX) / cellWidth);
+        if (col < 0) return 0;
+        if (col >= columns) return columns - 1;
+        return col;
+    }
+
+    /**
+     * Row containing a world Y coordinate, clamped to the grid
+     */
+    public int getRow(float worldY) {
+        int row = (int) Math.floor((worldY - originY) / cellHeight);
+        if (row < 0) return 0;
+        if (row >= rows) return rows - 1;
+        return row;
+    }
+
+    /**
+     * Shape indices stored in a cell, or null if the cell is empty
+     */
+    public IntArray getBucket(int column, int row) {
+        return buckets[row * columns + column];
+    }
+
+    // Getters
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public float getCellWidth() {
+        return cellWidth;
+    }
+
+    public float getCellHeight() {
+        return cellHeight;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+}
@@ -0,0 +1,262 @@
+package in.GameDev.SummerTerrain.collision;
+
+/**
+ * Bit grid of sub-tile cells (e.g. 8x8 or 16x16 per tile), one bit set for
+ * every cell that some collision shape overlaps. Rows are packed into longs,
+ * so a box test is a few masked word reads per covered row.
+ *
+ * Rasterising is conservative: a cell is set when a shape overlaps any part of
+ * it, so a box that overlaps a shape is always reported blocked, and a box
+ * reported blocked is at most one sub-cell away from a shape.
+ */
+public class SubTileRaster {
+
+    private final float originX;
+    private final float originY;
+    private final float cellWidth;
+    private final float cellHeight;
+    private final int columns;
+    private final int rows;
+    private final int wordsPerRow;
+
+    private final long[] bits;
+
+    public SubTileRaster(float originX, float originY, int columns, int rows,
+                         float cellWidth, float cellHeight) {
+        if (columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Raster must have at least one cell: " + columns + "x" + rows);
+        }
+        this.originX = originX;
+        this.originY = originY;
+        this.columns = columns;
+        this.rows = rows;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.wordsPerRow = (columns + 63) >>> 6;
+        this.bits = new long[wordsPerRow * rows];
+    }
+
+    /**
+     * Rasterise a tile's shapes in tile-local coordinates, covering the
+     * template's bounds (which may reach past its own cell)
+     *
+     * @param resolution Sub-cells per tile edge
+     */
+    public static SubTileRaster fromTemplate(TileShapeTemplate template, float tileWidth, float tileHeight,
+                                             int resolution) {
+        float cellWidth = tileWidth / resolution;
+        float cellHeight = tileHeight / resolution;
+        float minX = template.isSolid() ? 0 : template.getMinX();
+        float minY = template.isSolid() ? 0 : template.getMinY();
+        float maxX = template.isSolid() ? tileWidth : template.getMaxX();
+        float maxY = template.isSolid() ? tileHeight : template.getMaxY();
+
+        int firstColumn = (int) Math.floor(minX / cellWidth);
+        int firstRow = (int) Math.floor(minY / cellHeight);
+        int columns = Math.max((int) Math.ceil(maxX / cellWidth) - firstColumn, 1);
+        int rows = Math.max((int) Math.ceil(maxY / cellHeight) - firstRow, 1);
+        SubTileRaster raster = new SubTileRaster(firstColumn * cellWidth, firstRow * cellHeight,
+            columns, rows, cellWidth, cellHeight);
+
+        if (template.isSolid()) {
+            raster.addRectangle(0, 0, tileWidth, tileHeight);
+            return raster;
+        }
+
+        float[] rects = template.getRects();
+        for (int i = 0; i < rects.length; i += 4) {
+            raster.addRectangle(rects[i], rects[i + 1], rects[i] + rects[i + 2], rects[i + 1] + rects[i + 3]);
+        }
+
+        float[] vertices = template.getPieceVertices();
+        int[] starts = template.getPieceStarts();
+        for (int piece = 0; piece + 1 < starts.length; piece++) {
+            float[] pieceVertices = new float[starts[piece + 1] - starts[piece]];
+            System.arraycopy(vertices, starts[piece], pieceVertices, 0, pieceVertices.length);
+            raster.addPolygon(new ConvexShape(pieceVertices));
+        }
+        return raster;
+    }
+
+    /**
+     * Set every cell the rectangle overlaps
+     */
+    public void addRectangle(float minX, float minY, float maxX, float maxY) {
+        int minCol = Math.max((int) Math.floor((minX - originX) / cellWidth), 0);
+        int maxCol = Math.min((int) Math.ceil((maxX - originX) / cellWidth) - 1, columns - 1);
+        int minRow = Math.max((int) Math.floor((minY - originY) / cellHeight), 0);
+        int maxRow = Math.min((int) Math.ceil((maxY - originY) / cellHeight) - 1, rows - 1);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                bits[row * wordsPerRow + (col >>> 6)] |= 1L << col;
+            }
+        }
+    }
+
+    /**
+     * Set every cell the convex polygon overlaps
+     */
+    public void addPolygon(ConvexShape shape) {
+        int minCol = Math.max((int) Math.floor((shape.getMinX() - originX) / cellWidth), 0);
+        int maxCol = Math.min((int) Math.ceil((shape.getMaxX() - originX) / cellWidth) - 1, columns - 1);
+        int minRow = Math.max((int) Math.floor((shape.getMinY() - originY) / cellHeight), 0);
+        int maxRow = Math.min((int) Math.ceil((shape.getMaxY() - originY) / cellHeight) - 1, rows - 1);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                if (shape.overlapsRectangle(originX + col * cellWidth, originY + row * cellHeight,
+                        cellWidth, cellHeight)) {
+                    bits[row * wordsPerRow + (col >>> 6)] |= 1L << col;
+                }
+            }
+        }
+    }
+
+    /**
+     * OR another raster of the same cell size into this one, with its origin
+     * at the given world position (rounded to whole cells). Parts outside this
+     * raster are dropped.
+     */
+    public void or(SubTileRaster source, float atX, float atY) {
+        int columnOffset = Math.round((atX + source.originX - originX) / cellWidth);
+        int rowOffset = Math.round((atY + source.originY - originY) / cellHeight);
+
+        for (int row = 0; row < source.rows; row++) {
+            int destRow = row + rowOffset;
+            if (destRow < 0 || destRow >= rows) continue;
+            for (int word = 0; word < source.wordsPerRow; word++) {
+                long value = source.bits[row * source.wordsPerRow + word];
+                if (value != 0) {
+                    orWord(destRow, columnOffset + word * 64, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * OR 64 cells starting at a column into a row, clipped to the raster
+     */
+    private void orWord(int row, int column, long value) {
+        if (column < 0) {
+            if (column <= -64) return;
+            value >>>= -column;
+            column = 0;
+        }
+        int room = columns - column;
+        if (room <= 0) return;
+        if (room < 64) {
+            value &= (1L << room) - 1;
+        }
+
+        int index = row * wordsPerRow + (column >>> 6);
+        int shift = column & 63;
+        bits[index] |= value << shift;
+        if (shift != 0 && (column >>> 6) + 1 < wordsPerRow) {
+            bits[index + 1] |= value >>> (64 - shift);
+        }
+    }
+
+    /**
+     * True if any set cell overlaps the box (touching does not count)
+     */
+    public boolean overlaps(float x, float y, float width, float height) {
+        int minCol = Math.max((int) Math.floor((x - originX) / cellWidth), 0);
+        int maxCol = Math.min((int) Math.ceil((x + width - originX) / cellWidth) - 1, columns - 1);
+        int minRow = Math.max((int) Math.floor((y - originY) / cellHeight), 0);
+        int maxRow = Math.min((int) Math.ceil((y + height - originY) / cellHeight) - 1, rows - 1);
+        if (minCol > maxCol || minRow > maxRow) return false;
+
+        int firstWord = minCol >>> 6;
+        int lastWord = maxCol >>> 6;
+        long firstMask = -1L << minCol;
+        long lastMask = -1L >>> (63 - (maxCol & 63));
+
+        for (int row = minRow; row <= maxRow; row++) {
+            int base = row * wordsPerRow;
+            for (int word = firstWord; word <= lastWord; word++) {
+                long mask = -1L;
+                if (word == firstWord) mask &= firstMask;
+                if (word == lastWord) mask &= lastMask;
+                if ((bits[base + word] & mask) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Minkowski inflation toward the upper right: cell (c, r) of the result is
+     * set when any cell in [c, c + extraColumns] x [r, r + extraRows] of this
+     * raster is set. The result has the same origin and cell size and is
+     * smaller by the extra cells.
+     */
+    public SubTileRaster inflate(int extraColumns, int extraRows) {
+        SubTileRaster out = new SubTileRaster(originX, originY, columns - extraColumns, rows - extraRows,
+            cellWidth, cellHeight);
+
+        // Horizontal: OR each row with itself shifted down by 1..extraColumns cells
+        long[] wide = new long[rows * wordsPerRow];
+        for (int row = 0; row < rows; row++) {
+            int base = row * wordsPerRow;
+            for (int shift = 0; shift <= extraColumns; shift++) {
+                int wordShift = shift >>> 6;
+                int bitShift = shift & 63;
+                for (int word = 0; word + wordShift < wordsPerRow; word++) {
+                    long value = bits[base + word + wordShift] >>> bitShift;
+                    if (bitShift != 0 && word + wordShift + 1 < wordsPerRow) {
+                        value |= bits[base + word + wordShift + 1] << (64 - bitShift);
+                    }
+                    wide[base + word] |= value;
+                }
+            }
+        }
+
+        // Vertical: OR rows r..r + extraRows, keeping only the result's columns
+        long lastWordMask = (out.columns & 63) == 0 ? -1L : (1L << out.columns) - 1;
+        for (int row = 0; row < out.rows; row++) {
+            int outBase = row * out.wordsPerRow;
+            for (int r = row; r <= row + extraRows; r++) {
+                int base = r * wordsPerRow;
+                for (int word = 0; word < out.wordsPerRow; word++) {
+                    out.bits[outBase + word] |= wide[base + word];
+                }
+            }
+            out.bits[outBase + out.wordsPerRow - 1] &= lastWordMask;
+        }
+        return out;
+    }
+
+    /**
+     * Whether the cell containing a world point is set (false outside the raster)
+     */
+    public boolean isSetAt(float x, float y) {
+        return isSet((int) Math.floor((x - originX) / cellWidth), (int) Math.floor((y - originY) / cellHeight));
+    }
+
+    /**
+     * Whether a single cell is set
+     */
+    public boolean isSet(int column, int row) {
+        if (column < 0 || row < 0 || column >= columns || row >= rows) return false;
+        return (bits[row * wordsPerRow + (column >>> 6)] & (1L << column)) != 0;
+    }
+
+    // Getters
+    public float getOriginX() {
+        return originX;
+    }
+
+    public float getOriginY() {
+        return originY;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+}
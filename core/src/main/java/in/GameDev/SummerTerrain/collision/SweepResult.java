@@ -0,0 +1,40 @@
+package in.GameDev.SummerTerrain.collision;
+
+/**
+ * Outcome of sweeping a box along a movement vector (or casting a ray, which
+ * is a sweep of a zero-size box).
+ * time is the fraction of the movement (0..1) at which the box first touches
+ * a collision shape; the normal points away from the surface that was hit.
+ */
+public class SweepResult {
+
+    public boolean hit;
+    public float time = 1f;
+    public float normalX;
+    public float normalY;
+
+    /**
+     * Clear back to "no hit, full movement allowed"
+     */
+    public SweepResult reset() {
+        hit = false;
+        time = 1f;
+        normalX = 0;
+        normalY = 0;
+        return this;
+    }
+
+    /**
+     * Record a contact if it happens earlier than the one already stored
+     */
+    public boolean offer(float contactTime, float contactNormalX, float contactNormalY) {
+        if (hit ? contactTime >= time : contactTime > time) {
+            return false;
+        }
+        hit = true;
+        time = contactTime;
+        normalX = contactNormalX;
+        normalY = contactNormalY;
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+package in.GameDev.SummerTerrain.collision;
+
+/**
+ * Interval maths for sweeping a box along one separating axis.
+ * Overlap is strict (touching does not count), matching Rectangle.overlaps.
+ */
+final class SweptAxis {
+
+    private SweptAxis() {
+    }
+
+    /**
+     * Time at which the moving projection starts to overlap the static one.
+     * Infinity if it never does, -Float.MAX_VALUE if it always does.
+     */
+    static float entryTime(float boxMin, float boxMax, float shapeMin, float shapeMax, float velocity) {
+        if (velocity == 0) {
+            return (boxMax <= shapeMin || boxMin >= shapeMax) ? Float.POSITIVE_INFINITY : -Float.MAX_VALUE;
+        }
+        return velocity > 0 ? (shapeMin - boxMax) / velocity : (shapeMax - boxMin) / velocity;
+    }
+
+    /**
+     * Time at which the moving projection stops overlapping the static one
+     */
+    static float exitTime(float boxMin, float boxMax, float shapeMin, float shapeMax, float velocity) {
+        if (velocity == 0) {
+            return Float.MAX_VALUE;
+        }
+        return velocity > 0 ? (shapeMax - boxMin) / velocity : (shapeMin - boxMax) / velocity;
+    }
+
+    /**
+     * Sweep a box along (dx, dy) against a static axis-aligned box.
+     * Boxes already overlapping at the start are ignored.
+     *
+     * @return true if an earlier contact was recorded in the result
+     */
+    static boolean sweepBox(float x, float y, float width, float height, float dx, float dy,
+                            float minX, float minY, float maxX, float maxY, SweepResult result) {
+        float enterX = entryTime(x, x + width, minX, maxX, dx);
+        float enterY = entryTime(y, y + height, minY, maxY, dy);
+        float enter = Math.max(enterX, enterY);
+        if (enter < 0 || enter > 1) {
+            return false;
+        }
+
+        float exit = Math.min(exitTime(x, x + width, minX, maxX, dx),
+                              exitTime(y, y + height, minY, maxY, dy));
+        if (enter >= exit) {
+            return false;
+        }
+
+        if (enterX > enterY) {
+            return result.offer(enter, dx > 0 ? -1 : 1, 0);
+        }
+        return result.offer(enter, 0, dy > 0 ? -1 : 1);
+    }
+}
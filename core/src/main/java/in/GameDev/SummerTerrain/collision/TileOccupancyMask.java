@@ -0,0 +1,145 @@
+package in.GameDev.SummerTerrain.collision;
+
+import java.util.Arrays;
+
+/**
+ * Packed occupancy bits over a fixed world region. Each cell has a pair of
+ * bits, kept in two bitsets:
+ *  - solid:   the cell is completely covered by a collision shape
+ *  - touched: some collision shape reaches into the cell
+ * A point lookup reads at most one word from each bitset. Cells that are touched but
+ * not solid (MIXED) are the only ones that need an exact test against the shapes.
+ */
+public class TileOccupancyMask {
+
+    public static final int EMPTY = 0;
+    public static final int SOLID = 1;
+    public static final int MIXED = 2;
+
+    private final float originX;
+    private final float originY;
+    private final float cellWidth;
+    private final float cellHeight;
+    private final int columns;
+    private final int rows;
+
+    private final long[] solid;
+    private final long[] touched;
+
+    public TileOccupancyMask(float originX, float originY, int columns, int rows,
+                             float cellWidth, float cellHeight) {
+        if (columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Mask must have at least one cell: " + columns + "x" + rows);
+        }
+        this.originX = originX;
+        this.originY = originY;
+        this.columns = columns;
+        this.rows = rows;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+
+        int words = (columns * rows + 63) >>> 6;
+        this.solid = new long[words];
+        this.touched = new long[words];
+    }
+
+    /**
+     * Mark the cells covered by a rectangle: fully covered cells become solid,
+     * partially covered ones are only touched.
+     */
+    public void addRectangle(float x, float y, float width, float height) {
+        addBounds(x, y, x + width, y + height);
+
+        int minCol = Math.max((int) Math.ceil((x - originX) / cellWidth), 0);
+        int maxCol = Math.min((int) Math.floor((x + width - originX) / cellWidth) - 1, columns - 1);
+        int minRow = Math.max((int) Math.ceil((y - originY) / cellHeight), 0);
+        int maxRow = Math.min((int) Math.floor((y + height - originY) / cellHeight) - 1, rows - 1);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                int cell = row * columns + col;
+                solid[cell >>> 6] |= 1L << cell;
+            }
+        }
+    }
+
+    /**
+     * Mark every cell a bounding box reaches into as touched (never solid).
+     * Used for shapes that do not fill their bounds.
+     */
+    public void addBounds(float minX, float minY, float maxX, float maxY) {
+        int minCol = Math.max((int) Math.floor((minX - originX) / cellWidth), 0);
+        int maxCol = Math.min((int) Math.floor((maxX - originX) / cellWidth), columns - 1);
+        int minRow = Math.max((int) Math.floor((minY - originY) / cellHeight), 0);
+        int maxRow = Math.min((int) Math.floor((maxY - originY) / cellHeight), rows - 1);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                int cell = row * columns + col;
+                touched[cell >>> 6] |= 1L << cell;
+            }
+        }
+    }
+
+    /**
+     * State of the cell containing a world point: EMPTY, SOLID or MIXED.
+     * Points outside the mask report MIXED so callers fall back to an exact test.
+     */
+    public int getState(float worldX, float worldY) {
+        float localX = (worldX - originX) / cellWidth;
+        float localY = (worldY - originY) / cellHeight;
+        if (localX < 0 || localY < 0 || localX >= columns || localY >= rows) {
+            return MIXED;
+        }
+
+        int cell = (int) localY * columns + (int) localX;
+        long bit = 1L << cell;
+        if ((solid[cell >>> 6] & bit) != 0) return SOLID;
+        if ((touched[cell >>> 6] & bit) == 0) return EMPTY;
+        return MIXED;
+    }
+
+    public void clear() {
+        Arrays.fill(solid, 0L);
+        Arrays.fill(touched, 0L);
+    }
+
+    /**
+     * Number of cells that are completely covered
+     */
+    public int getSolidCount() {
+        int count = 0;
+        for (long word : solid) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Number of cells reached by any shape
+     */
+    public int getTouchedCount() {
+        int count = 0;
+        for (long word : touched) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // Getters
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public float getCellWidth() {
+        return cellWidth;
+    }
+
+    public float getCellHeight() {
+        return cellHeight;
+    }
+}
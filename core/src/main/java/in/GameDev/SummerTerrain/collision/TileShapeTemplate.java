@@ -0,0 +1,209 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.objects.PolygonMapObject;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Collision shapes of one tile ID in tile-local coordinates, converted once
+ * and stamped into every cell that uses the tile.
+ *  - rects:  packed x, y, width, height
+ *  - pieces: convex polygon pieces, packed x,y pairs; piece i spans
+ *            pieceStarts[i] until pieceStarts[i + 1]
+ * A tile with a boolean "solid" property skips shape data entirely and
+ * blocks its whole cell.
+ */
+public class TileShapeTemplate {
+
+    public static final String SOLID_PROPERTY = "solid";
+
+    // Integer tile property overriding the category bits of the tile's source layer
+    public static final String CATEGORY_PROPERTY = "category";
+
+    private static final float[] NO_FLOATS = new float[0];
+    private static final int[] NO_PIECES = new int[]{0};
+
+    private final int tileId;
+    private final boolean solid;
+    private final int category;
+    private final float[] rects;
+    private final float[] pieceVertices;
+    private final int[] pieceStarts;
+    private final int polygonCount;
+    private final int unsupportedCount;
+
+    // Tile-local bounds of all shapes (zero for solid and empty templates)
+    private float minX;
+    private float minY;
+    private float maxX;
+    private float maxY;
+
+    private TileShapeTemplate(int tileId, boolean solid, int category, float[] rects, float[] pieceVertices,
+                              int[] pieceStarts, int polygonCount, int unsupportedCount) {
+        this.tileId = tileId;
+        this.solid = solid;
+        this.category = category;
+        this.rects = rects;
+        this.pieceVertices = pieceVertices;
+        this.pieceStarts = pieceStarts;
+        this.polygonCount = polygonCount;
+        this.unsupportedCount = unsupportedCount;
+
+        if (rects.length > 0 || pieceVertices.length > 0) {
+            minX = minY = Float.MAX_VALUE;
+            maxX = maxY = -Float.MAX_VALUE;
+        }
+        for (int i = 0; i < rects.length; i += 4) {
+            include(rects[i], rects[i + 1]);
+            include(rects[i] + rects[i + 2], rects[i + 1] + rects[i + 3]);
+        }
+        for (int i = 0; i < pieceVertices.length; i += 2) {
+            include(pieceVertices[i], pieceVertices[i + 1]);
+        }
+    }
+
+    private void include(float x, float y) {
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+    }
+
+    /**
+     * Convert a tile's collision objects, or null if the tile has no collision at all
+     */
+    public static TileShapeTemplate fromTile(TiledMapTile tile) {
+        Integer categoryProperty = tile.getProperties().get(CATEGORY_PROPERTY, Integer.class);
+        int category = categoryProperty != null ? categoryProperty : 0;
+
+        Boolean solidProperty = tile.getProperties().get(SOLID_PROPERTY, Boolean.class);
+        if (Boolean.TRUE.equals(solidProperty)) {
+            return new TileShapeTemplate(tile.getId(), true, category, NO_FLOATS, NO_FLOATS, NO_PIECES, 0, 0);
+        }
+
+        if (tile.getObjects() == null || tile.getObjects().getCount() == 0) {
+            return null;
+        }
+
+        FloatArray rects = new FloatArray();
+        FloatArray pieces = new FloatArray();
+        IntArray starts = new IntArray();
+        starts.add(0);
+        int polygons = 0;
+        int unsupported = 0;
+
+        for (MapObject object : tile.getObjects()) {
+            if (object instanceof RectangleMapObject) {
+                Rectangle rect = ((RectangleMapObject) object).getRectangle();
+                rects.add(rect.x, rect.y, rect.width, rect.height);
+            } else if (object instanceof PolygonMapObject) {
+                polygons++;
+                float[] local = ((PolygonMapObject) object).getPolygon().getTransformedVertices();
+                Array<float[]> convex = ConvexDecomposer.decompose(local);
+                for (float[] piece : convex) {
+                    pieces.addAll(piece);
+                    starts.add(pieces.size);
+                }
+            } else {
+                // Unsupported collision shape (ellipse, polyline, ...)
+                unsupported++;
+            }
+        }
+
+        return new TileShapeTemplate(tile.getId(), false, category, rects.toArray(), pieces.toArray(),
+            starts.toArray(), polygons, unsupported);
+    }
+
+    /**
+     * Add this template's shapes, offset to a cell origin, to world shape lists
+     *
+     * @param category Category bits given to the polygon pieces
+     */
+    public void stamp(float originX, float originY, float cellWidth, float cellHeight, int category,
+                      Array<Rectangle> outRects, Array<ConvexShape> outPolygons) {
+        if (solid) {
+            outRects.add(new Rectangle(originX, originY, cellWidth, cellHeight));
+            return;
+        }
+
+        for (int i = 0; i < rects.length; i += 4) {
+            outRects.add(new Rectangle(originX + rects[i], originY + rects[i + 1], rects[i + 2], rects[i + 3]));
+        }
+
+        for (int p = 0; p + 1 < pieceStarts.length; p++) {
+            int start = pieceStarts[p];
+            int end = pieceStarts[p + 1];
+            float[] world = new float[end - start];
+            for (int i = start; i < end; i += 2) {
+                world[i - start] = originX + pieceVertices[i];
+                world[i - start + 1] = originY + pieceVertices[i + 1];
+            }
+            outPolygons.add(new ConvexShape(world, category));
+        }
+    }
+
+    // Getters
+    public int getTileId() {
+        return tileId;
+    }
+
+    public boolean isSolid() {
+        return solid;
+    }
+
+    /**
+     * Category bits from the tile's "category" property, or 0 to use the layer's
+     */
+    public int getCategory() {
+        return category;
+    }
+
+    public int getRectCount() {
+        return solid ? 1 : rects.length / 4;
+    }
+
+    public int getPieceCount() {
+        return pieceStarts.length - 1;
+    }
+
+    public int getPolygonCount() {
+        return polygonCount;
+    }
+
+    public int getUnsupportedCount() {
+        return unsupportedCount;
+    }
+
+    public float getMinX() {
+        return minX;
+    }
+
+    public float getMinY() {
+        return minY;
+    }
+
+    public float getMaxX() {
+        return maxX;
+    }
+
+    public float getMaxY() {
+        return maxY;
+    }
+
+    public float[] getRects() {
+        return rects;
+    }
+
+    public float[] getPieceVertices() {
+        return pieceVertices;
+    }
+
+    public int[] getPieceStarts() {
+        return pieceStarts;
+    }
+}
@@ -0,0 +1,97 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * Table from tile ID to its collision shape template.
+ * Every tile of every tileset is converted once up front, so building
+ * collision for a cell is a lookup plus an offset instead of walking the
+ * tile's MapObjects again. Tiles without collision map to null.
+ *
+ * Lookups take no lock, so parallel chunk builds do not contend on the table;
+ * the rare tile added later is published by copying the table.
+ */
+public class TileShapeTemplates {
+
+    private volatile IntMap<TileShapeTemplate> templates = new IntMap<>();
+    private int tilesWithCollision;
+
+    // Tile-local bounds over every template, always including the tile origin.
+    // Tells how far a cell's shapes can reach into neighbouring cells.
+    private float minX;
+    private float minY;
+    private float maxX;
+    private float maxY;
+
+    public TileShapeTemplates(TiledMap map) {
+        for (TiledMapTileSet tileSet : map.getTileSets()) {
+            for (TiledMapTile tile : tileSet) {
+                add(templates, tile);
+            }
+        }
+    }
+
+    /**
+     * Template for a cell's tile. Tiles that were not in any tileset
+     * (e.g. created at runtime) are converted on first use.
+     */
+    public TileShapeTemplate get(TiledMapTile tile) {
+        int id = tile.getId();
+        IntMap<TileShapeTemplate> current = templates;
+        if (current.containsKey(id)) {
+            return current.get(id);
+        }
+        synchronized (this) {
+            if (templates.containsKey(id)) {
+                return templates.get(id);
+            }
+            IntMap<TileShapeTemplate> copy = new IntMap<>(templates);
+            TileShapeTemplate template = add(copy, tile);
+            templates = copy;
+            return template;
+        }
+    }
+
+    private TileShapeTemplate add(IntMap<TileShapeTemplate> table, TiledMapTile tile) {
+        TileShapeTemplate template = TileShapeTemplate.fromTile(tile);
+        table.put(tile.getId(), template);
+        if (template != null) {
+            tilesWithCollision++;
+            minX = Math.min(minX, template.getMinX());
+            minY = Math.min(minY, template.getMinY());
+            maxX = Math.max(maxX, template.getMaxX());
+            maxY = Math.max(maxY, template.getMaxY());
+        }
+        return template;
+    }
+
+    /**
+     * Number of distinct tile IDs that have collision shapes
+     */
+    public int getTilesWithCollision() {
+        return tilesWithCollision;
+    }
+
+    public float getMinX() {
+        return minX;
+    }
+
+    public float getMinY() {
+        return minY;
+    }
+
+    public float getMaxX() {
+        return maxX;
+    }
+
+    public float getMaxY() {
+        return maxY;
+    }
+
+    public int size() {
+        return templates.size;
+    }
+}
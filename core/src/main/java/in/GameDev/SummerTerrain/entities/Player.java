@@ -10,6 +10,7 @@ import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import in.GameDev.SummerTerrain.collision.CollisionHandler;
+import in.GameDev.SummerTerrain.collision.CollisionQueryContext;
 
 public class Player {
     public enum State { IDLE, WALK, ATTACK, PICK_UP }
@@ -42,6 +43,12 @@ public class Player {
     // Collision handler (passed from GameScreen)
     private CollisionHandler collisionHandler;
 
+    // Shapes around the player, reused while it stays in the same neighbourhood
+    private CollisionQueryContext collisionContext;
+
+    // Reused result of the collision check, so moving allocates nothing
+    private final Vector2 allowedPosition = new Vector2();
+
     // Collision box (smaller than sprite for better feel)
     private Rectangle collisionBox;
     private static final float COLLISION_WIDTH = 40;  // Adjust as needed
@@ -101,6 +108,7 @@ public class Player {
      */
     public void setCollisionHandler(CollisionHandler handler) {
         this.collisionHandler = handler;
+        this.collisionContext = handler != null ? handler.createQueryContext() : null;
         System.out.println("✓ Player collision handler set");
     }
 
@@ -191,15 +199,16 @@ public class Player {
             float desiredCollisionY = desiredY + (height - COLLISION_HEIGHT) / 2;
 
             // Get allowed movement from collision handler
-            float[] allowed = collisionHandler.getAllowedMovement(
+            collisionHandler.getAllowedMovement(collisionContext,
                 collisionBox.x, collisionBox.y,
                 desiredCollisionX, desiredCollisionY,
-                COLLISION_WIDTH, COLLISION_HEIGHT
+                COLLISION_WIDTH, COLLISION_HEIGHT,
+                allowedPosition
             );
 
             // Convert collision box position back to sprite position
-            position.x = allowed[0] - (width - COLLISION_WIDTH) / 2;
-            position.y = allowed[1] - (height - COLLISION_HEIGHT) / 2;
+            position.x = allowedPosition.x - (width - COLLISION_WIDTH) / 2;
+            position.y = allowedPosition.y - (height - COLLISION_HEIGHT) / 2;
         } else {
             // No collision checking - move freely
             position.x = desiredX;
@@ -0,0 +1,193 @@
+package in.GameDev.SummerTerrain.navigation;
+
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * Integration field towards one goal tile: the path cost from every tile of a
+ * window around the goal, plus the step each tile takes towards the goal.
+ * Built once by a Dijkstra flood outwards from the goal; any number of agents
+ * then steer by lookup.
+ *
+ * Immutable once built, so agents may read it from any thread. Get instances
+ * from FlowFieldGenerator, which drops them when the map changes.
+ */
+public class FlowField {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // Step towards the goal per tile, as (dx + 1) * 3 + (dy + 1); NO_STEP at the goal and where unreachable
+    private static final byte NO_STEP = 4;
+
+    private static final int[] STEP_X = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] STEP_Y = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final int goalX;
+    private final int goalY;
+    private final int originX;
+    private final int originY;
+    private final int width;
+    private final int height;
+    private final float tileWidth;
+    private final float tileHeight;
+
+    private final int[] costs;
+    private final byte[] steps;
+    private int reachable;
+
+    /**
+     * @param radius Tiles around the goal the field covers; 0 for the whole map
+     */
+    FlowField(NavigationGrid grid, int goalX, int goalY, int radius) {
+        this.goalX = goalX;
+        this.goalY = goalY;
+        if (radius > 0) {
+            originX = Math.max(goalX - radius, 0);
+            originY = Math.max(goalY - radius, 0);
+            width = Math.min(goalX + radius + 1, grid.getWidth()) - originX;
+            height = Math.min(goalY + radius + 1, grid.getHeight()) - originY;
+        } else {
+            originX = 0;
+            originY = 0;
+            width = grid.getWidth();
+            height = grid.getHeight();
+        }
+        this.tileWidth = grid.getLayer().getTileWidth();
+        this.tileHeight = grid.getLayer().getTileHeight();
+        this.costs = new int[width * height];
+        this.steps = new byte[width * height];
+        Arrays.fill(costs, UNREACHABLE);
+        Arrays.fill(steps, NO_STEP);
+
+        if (contains(goalX, goalY) && grid.isWalkable(goalX, goalY)) {
+            integrate(grid);
+        }
+    }
+
+    /**
+     * Dijkstra from the goal; every tile remembers the step back to the tile it was reached from
+     */
+    private void integrate(NavigationGrid grid) {
+        SearchHeap open = new SearchHeap();
+        int goal = index(goalX, goalY);
+        costs[goal] = 0;
+        open.push(0, goal);
+
+        while (!open.isEmpty()) {
+            int priority = open.peekPriority();
+            int tile = open.pop();
+            if (priority > costs[tile]) continue;
+            reachable++;
+
+            int x = originX + tile % width;
+            int y = originY + tile / width;
+            for (int i = 0; i < STEP_X.length; i++) {
+                int nextX = x + STEP_X[i];
+                int nextY = y + STEP_Y[i];
+                // Steps are symmetric, so reaching the neighbour from here is also its step back
+                if (!contains(nextX, nextY) || !grid.canStep(x, y, STEP_X[i], STEP_Y[i])) {
+                    continue;
+                }
+                int next = index(nextX, nextY);
+                int nextCost = costs[tile] + (i < 4 ? NavigationGrid.STRAIGHT_COST : NavigationGrid.DIAGONAL_COST);
+                if (nextCost < costs[next]) {
+                    costs[next] = nextCost;
+                    steps[next] = (byte) ((1 - STEP_X[i]) * 3 + (1 - STEP_Y[i]));
+                    open.push(nextCost, next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Steering direction at a world position: the unit vector towards the
+     * centre of the next tile on the way to the goal. Zero on the goal tile.
+     *
+     * @return false if the position is outside the field or cannot reach the goal
+     */
+    public boolean getDirection(float worldX, float worldY, Vector2 out) {
+        int x = (int) Math.floor(worldX / tileWidth);
+        int y = (int) Math.floor(worldY / tileHeight);
+        if (!contains(x, y) || costs[index(x, y)] == UNREACHABLE) {
+            out.set(0, 0);
+            return false;
+        }
+        int step = steps[index(x, y)];
+        if (step == NO_STEP) {
+            out.set(0, 0);
+            return true;
+        }
+
+        float targetX = (x + step / 3 - 1 + 0.5f) * tileWidth;
+        float targetY = (y + step % 3 - 1 + 0.5f) * tileHeight;
+        float dx = targetX - worldX;
+        float dy = targetY - worldY;
+        float length = (float) Math.sqrt(dx * dx + dy * dy);
+        if (length == 0) {
+            out.set(0, 0);
+        } else {
+            out.set(dx / length, dy / length);
+        }
+        return true;
+    }
+
+    /**
+     * Step (dx, dy), each in -1..1, a tile takes towards the goal; (0, 0) at
+     * the goal, outside the field and where the goal cannot be reached
+     */
+    public int getStepX(int x, int y) {
+        return contains(x, y) ? steps[index(x, y)] / 3 - 1 : 0;
+    }
+
+    public int getStepY(int x, int y) {
+        return contains(x, y) ? steps[index(x, y)] % 3 - 1 : 0;
+    }
+
+    /**
+     * Path cost from a tile to the goal in NavigationGrid step costs, or UNREACHABLE
+     */
+    public int getCost(int x, int y) {
+        return contains(x, y) ? costs[index(x, y)] : UNREACHABLE;
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= originX && y >= originY && x < originX + width && y < originY + height;
+    }
+
+    private int index(int x, int y) {
+        return (y - originY) * width + (x - originX);
+    }
+
+    // Getters
+    public int getGoalX() {
+        return goalX;
+    }
+
+    public int getGoalY() {
+        return goalY;
+    }
+
+    public int getOriginX() {
+        return originX;
+    }
+
+    public int getOriginY() {
+        return originY;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Tiles that can reach the goal, the goal included
+     */
+    public int getReachableCount() {
+        return reachable;
+    }
+}
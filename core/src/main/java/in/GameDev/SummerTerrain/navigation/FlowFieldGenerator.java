@@ -0,0 +1,122 @@
+package in.GameDev.SummerTerrain.navigation;
+
+import in.GameDev.SummerTerrain.collision.CollisionChangeListener;
+import in.GameDev.SummerTerrain.collision.CollisionLayer;
+
+/**
+ * Builds and caches FlowFields for the goals agents are currently heading to
+ * (the player, a rally point). A field is reused until its goal tile changes
+ * or a tile edit lands inside it; the least recently used one is dropped when
+ * the cache is full.
+ *
+ * Keeps its own NavigationGrid, refreshed from the layer's tile edits.
+ */
+public class FlowFieldGenerator implements CollisionChangeListener {
+
+    public static final int DEFAULT_CAPACITY = 8;
+
+    private final NavigationGrid grid;
+    private final int radius;
+
+    private final FlowField[] fields;
+    private final long[] lastUsed;
+    private long useClock;
+    private int fieldsBuilt;
+
+    public FlowFieldGenerator(CollisionLayer layer) {
+        this(layer, CollisionLayer.ALL_CATEGORIES, 0, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param mask     Only shapes whose category shares a bit with the mask block tiles
+     * @param radius   Tiles around the goal each field covers; 0 for the whole map
+     * @param capacity Fields kept at once
+     */
+    public FlowFieldGenerator(CollisionLayer layer, int mask, int radius, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Flow field capacity must be positive, got " + capacity);
+        }
+        this.grid = new NavigationGrid(layer, mask);
+        this.radius = radius;
+        this.fields = new FlowField[capacity];
+        this.lastUsed = new long[capacity];
+        layer.addChangeListener(this);
+    }
+
+    /**
+     * Field leading to a goal tile, built on the first request
+     */
+    public synchronized FlowField getField(int goalX, int goalY) {
+        int free = -1;
+        int oldest = 0;
+        for (int i = 0; i < fields.length; i++) {
+            FlowField field = fields[i];
+            if (field == null) {
+                free = i;
+            } else if (field.getGoalX() == goalX && field.getGoalY() == goalY) {
+                lastUsed[i] = ++useClock;
+                return field;
+            } else if (lastUsed[i] < lastUsed[oldest]) {
+                oldest = i;
+            }
+        }
+
+        int slot = free >= 0 ? free : oldest;
+        FlowField field = new FlowField(grid, goalX, goalY, radius);
+        fields[slot] = field;
+        lastUsed[slot] = ++useClock;
+        fieldsBuilt++;
+        return field;
+    }
+
+    /**
+     * Field leading to the tile containing a world position
+     */
+    public FlowField getFieldAt(float worldX, float worldY) {
+        return getField(grid.getTileX(worldX), grid.getTileY(worldY));
+    }
+
+    /**
+     * Re-read the edited chunk's tiles and drop the fields they lie in
+     */
+    @Override
+    public synchronized void chunkChanged(int chunkX, int chunkY) {
+        int chunkSize = grid.getLayer().getChunkSize();
+        int minX = chunkX * chunkSize;
+        int minY = chunkY * chunkSize;
+        int maxX = minX + chunkSize - 1;
+        int maxY = minY + chunkSize - 1;
+        if (!grid.refresh(minX, minY, maxX, maxY)) {
+            return;
+        }
+
+        for (int i = 0; i < fields.length; i++) {
+            FlowField field = fields[i];
+            if (field != null
+                && field.getOriginX() <= maxX && field.getOriginX() + field.getWidth() > minX
+                && field.getOriginY() <= maxY && field.getOriginY() + field.getHeight() > minY) {
+                fields[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Stop listening for tile edits
+     */
+    public void dispose() {
+        grid.getLayer().removeChangeListener(this);
+    }
+
+    // Getters
+    public NavigationGrid getGrid() {
+        return grid;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public synchronized int getFieldsBuilt() {
+        return fieldsBuilt;
+    }
+}
@@ -0,0 +1,657 @@
+package in.GameDev.SummerTerrain.navigation;
+
+import com.badlogic.gdx.utils.IntArray;
+import in.GameDev.SummerTerrain.collision.CollisionChangeListener;
+import in.GameDev.SummerTerrain.collision.CollisionLayer;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical A* (HPA*) over a NavigationGrid.
+ *
+ * The map is split into square clusters. Where two neighbouring clusters share
+ * a run of walkable border tiles there is an entrance: one transition in the
+ * middle of a short run, one at each end of a long one. Each transition is a
+ * pair of abstract nodes (one per side) joined by a single step, and the
+ * nodes of a cluster are joined by their shortest path cost inside the
+ * cluster. A query connects start and goal to the nodes of their clusters and
+ * searches this small graph instead of the tiles, returning waypoints; the
+ * tiles between two waypoints are found later with a search bounded to one or
+ * two clusters (refineSegment).
+ *
+ * Paths are at most a few percent longer than the tile-level optimum. Runtime
+ * tile edits (through CollisionLayer.setTile) only rebuild the entrances and
+ * intra-cluster costs of the clusters inside the edited chunk and of their
+ * direct neighbours. Queries may run on several threads at once; edits wait
+ * for running queries and block new ones. A query given a SearchSlicer pauses
+ * every SLICE_EXPANSIONS abstract nodes without holding the lock, and starts
+ * over if an edit landed meanwhile.
+ */
+public class HierarchicalPathfinder implements CollisionChangeListener {
+
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+    // Abstract nodes expanded between two SearchSlicer calls
+    public static final int SLICE_EXPANSIONS = 128;
+
+    // Border runs at least this long get a transition at both ends
+    private static final int LONG_ENTRANCE = 6;
+
+    // Outcomes of one attempt at the abstract search
+    private static final int NOT_FOUND = 0;
+    private static final int FOUND = 1;
+    private static final int RESTART = 2;
+
+    private final NavigationGrid grid;
+    private final int clusterSize;
+    private final int clustersX;
+    private final int clustersY;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Abstract nodes; slots of removed nodes are reused
+    private int[] nodeX = new int[0];
+    private int[] nodeY = new int[0];
+    private int[] nodeCluster = new int[0];
+    private IntArray[] nodeEdges = new IntArray[0]; // target, cost pairs
+    private int nodeSlots;
+    private int nodeCount;
+    private final IntArray freeNodes = new IntArray();
+
+    private final IntArray[] clusterNodes;
+
+    // Node pairs of every border: vertical borders (between columns) first, then horizontal ones
+    private final IntArray[] borderNodes;
+    private final int verticalBorders;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    // Bumped by every edit that changes the graph, so cached paths can be recognised as stale
+    private volatile int revision;
+
+    public HierarchicalPathfinder(CollisionLayer layer) {
+        this(new NavigationGrid(layer), DEFAULT_CLUSTER_SIZE);
+    }
+
+    /**
+     * Build the abstract graph and start listening to the grid's layer for tile edits
+     *
+     * @param clusterSize Cluster edge in tiles; about the layer's chunk size or a divisor of it
+     */
+    public HierarchicalPathfinder(NavigationGrid grid, int clusterSize) {
+        if (clusterSize < 2) {
+            throw new IllegalArgumentException("Cluster size must be at least 2, got " + clusterSize);
+        }
+        this.grid = grid;
+        this.clusterSize = clusterSize;
+        this.clustersX = (grid.getWidth() + clusterSize - 1) / clusterSize;
+        this.clustersY = (grid.getHeight() + clusterSize - 1) / clusterSize;
+
+        clusterNodes = new IntArray[clustersX * clustersY];
+        for (int i = 0; i < clusterNodes.length; i++) {
+            clusterNodes[i] = new IntArray();
+        }
+        verticalBorders = (clustersX - 1) * clustersY;
+        borderNodes = new IntArray[verticalBorders + clustersX * (clustersY - 1)];
+        for (int i = 0; i < borderNodes.length; i++) {
+            borderNodes[i] = new IntArray();
+        }
+
+        long start = System.nanoTime();
+        rebuild(0, 0, clustersX - 1, clustersY - 1);
+        long elapsed = (System.nanoTime() - start) / 1000000;
+        System.out.println("✓ HierarchicalPathfinder built: " + clustersX + "x" + clustersY + " clusters, "
+            + nodeCount + " nodes in " + elapsed + " ms");
+
+        grid.getLayer().addChangeListener(this);
+    }
+
+    /**
+     * Find a path between two tiles
+     *
+     * @param out Filled with the waypoints, or cleared if there is no path
+     * @return true if a path was found
+     */
+    public boolean findPath(int startX, int startY, int goalX, int goalY, NavigationPath out) {
+        return findPath(startX, startY, goalX, goalY, out, null);
+    }
+
+    /**
+     * Find a path between two tiles in slices
+     *
+     * @param slicer Called every SLICE_EXPANSIONS abstract nodes, or null to search in one go
+     * @return true if a path was found; false if there is none or the slicer gave up
+     */
+    public boolean findPath(int startX, int startY, int goalX, int goalY, NavigationPath out,
+                            SearchSlicer slicer) {
+        int outcome;
+        do {
+            out.clear();
+            lock.readLock().lock();
+            try {
+                if (!grid.isWalkable(startX, startY) || !grid.isWalkable(goalX, goalY)) {
+                    return false;
+                }
+                Scratch s = scratch.get();
+                int startCluster = getCluster(startX, startY);
+                int goalCluster = getCluster(goalX, goalY);
+
+                // Same cluster: a bounded tile search is cheapest when it succeeds
+                if (startCluster == goalCluster) {
+                    int cost = searchInClusters(s.tiles, startCluster, startCluster, startX, startY, goalX, goalY);
+                    if (cost >= 0) {
+                        out.addWaypoint(startX, startY);
+                        out.addWaypoint(goalX, goalY);
+                        out.setCost(cost);
+                        return true;
+                    }
+                }
+
+                outcome = findAbstractPath(s, startX, startY, startCluster, goalX, goalY, goalCluster, out, slicer);
+            } finally {
+                lock.readLock().unlock();
+            }
+        } while (outcome == RESTART);
+        return outcome == FOUND;
+    }
+
+    /**
+     * A* over the abstract graph, with the start and goal joined to the nodes of
+     * their clusters by the costs of a flood inside each cluster. Called with
+     * the read lock held; gives it up while the slicer runs.
+     *
+     * @return FOUND, NOT_FOUND (also when the slicer gave up) or RESTART after an edit
+     */
+    private int findAbstractPath(Scratch s, int startX, int startY, int startCluster,
+                                 int goalX, int goalY, int goalCluster, NavigationPath out,
+                                 SearchSlicer slicer) {
+        int startRevision = revision;
+        s.begin(nodeSlots);
+        int stamp = s.stamp;
+
+        IntArray goalNodes = clusterNodes[goalCluster];
+        floodCluster(s.tiles, goalCluster, goalX, goalY);
+        for (int i = 0; i < goalNodes.size; i++) {
+            int node = goalNodes.get(i);
+            int cost = s.tiles.getCost(nodeX[node], nodeY[node]);
+            if (cost >= 0) {
+                s.goalCost[node] = cost;
+                s.goalStamp[node] = stamp;
+            }
+        }
+
+        IntArray startNodes = clusterNodes[startCluster];
+        floodCluster(s.tiles, startCluster, startX, startY);
+        for (int i = 0; i < startNodes.size; i++) {
+            int node = startNodes.get(i);
+            int cost = s.tiles.getCost(nodeX[node], nodeY[node]);
+            if (cost >= 0) {
+                s.open(node, cost, -1, TileSearch.heuristic(nodeX[node], nodeY[node], goalX, goalY));
+            }
+        }
+
+        int best = Integer.MAX_VALUE;
+        int bestNode = -1;
+        int expanded = 0;
+        SearchHeap open = s.heap;
+        while (!open.isEmpty() && open.peekPriority() < best) {
+            int node = open.pop();
+            if (s.closed[node] == stamp) continue;
+            s.closed[node] = stamp;
+
+            if (slicer != null && ++expanded % SLICE_EXPANSIONS == 0) {
+                lock.readLock().unlock();
+                boolean resume;
+                try {
+                    resume = slicer.endSlice();
+                } finally {
+                    lock.readLock().lock();
+                }
+                if (!resume) {
+                    return NOT_FOUND;
+                }
+                if (revision != startRevision) {
+                    return RESTART;
+                }
+            }
+
+            int cost = s.cost[node];
+            if (s.goalStamp[node] == stamp && cost + s.goalCost[node] < best) {
+                best = cost + s.goalCost[node];
+                bestNode = node;
+            }
+
+            IntArray edges = nodeEdges[node];
+            for (int i = 0; i < edges.size; i += 2) {
+                int next = edges.get(i);
+                if (s.closed[next] == stamp) continue;
+                int nextCost = cost + edges.get(i + 1);
+                if (s.seen[next] == stamp && s.cost[next] <= nextCost) continue;
+                s.open(next, nextCost, node, TileSearch.heuristic(nodeX[next], nodeY[next], goalX, goalY));
+            }
+        }
+
+        if (bestNode < 0) {
+            return NOT_FOUND;
+        }
+
+        // Walk back from the last node, then emit in order
+        IntArray chain = s.chain;
+        chain.clear();
+        for (int node = bestNode; node >= 0; node = s.parent[node]) {
+            chain.add(node);
+        }
+        out.addWaypoint(startX, startY);
+        for (int i = chain.size - 1; i >= 0; i--) {
+            int node = chain.get(i);
+            out.addWaypoint(nodeX[node], nodeY[node]);
+        }
+        out.addWaypoint(goalX, goalY);
+        out.setCost(best);
+        return FOUND;
+    }
+
+    /**
+     * Append the tiles from waypoint segment to segment + 1 (excluding the
+     * segment's first tile) as x, y pairs
+     *
+     * @return false if the segment is no longer walkable after a tile edit; query again
+     */
+    public boolean refineSegment(NavigationPath path, int segment, IntArray out) {
+        int fromX = path.getWaypointX(segment);
+        int fromY = path.getWaypointY(segment);
+        int toX = path.getWaypointX(segment + 1);
+        int toY = path.getWaypointY(segment + 1);
+        lock.readLock().lock();
+        try {
+            TileSearch tiles = scratch.get().tiles;
+            int cost = searchBetween(tiles, fromX, fromY, toX, toY);
+            if (cost < 0) {
+                return false;
+            }
+            tiles.appendPath(toX, toY, out);
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reuse a path found between other tiles of the same start and goal
+     * clusters: keep its inner waypoints and join the new start and goal to
+     * them with searches bounded to their clusters, skipping the abstract search
+     *
+     * @param cached Path with at least one inner waypoint, found at the current revision
+     * @return false if the new ends cannot be joined that way; call findPath instead
+     */
+    public boolean reconnectPath(NavigationPath cached, int startX, int startY, int goalX, int goalY,
+                                 NavigationPath out) {
+        out.clear();
+        int last = cached.getWaypointCount() - 1;
+        if (last < 2) {
+            return false;
+        }
+        int firstX = cached.getWaypointX(1);
+        int firstY = cached.getWaypointY(1);
+        int lastX = cached.getWaypointX(last - 1);
+        int lastY = cached.getWaypointY(last - 1);
+
+        lock.readLock().lock();
+        try {
+            TileSearch tiles = scratch.get().tiles;
+            int oldStart = searchBetween(tiles, cached.getWaypointX(0), cached.getWaypointY(0), firstX, firstY);
+            int oldGoal = searchBetween(tiles, lastX, lastY, cached.getWaypointX(last), cached.getWaypointY(last));
+            int newStart = searchBetween(tiles, startX, startY, firstX, firstY);
+            int newGoal = searchBetween(tiles, lastX, lastY, goalX, goalY);
+            if (oldStart < 0 || oldGoal < 0 || newStart < 0 || newGoal < 0) {
+                return false;
+            }
+
+            out.addWaypoint(startX, startY);
+            for (int i = 1; i < last; i++) {
+                out.addWaypoint(cached.getWaypointX(i), cached.getWaypointY(i));
+            }
+            out.addWaypoint(goalX, goalY);
+            out.setCost(cached.getCost() - oldStart - oldGoal + newStart + newGoal);
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Refine every segment: the full tile path including the start, as x, y pairs
+     *
+     * @return false if a segment is no longer walkable
+     */
+    public boolean refinePath(NavigationPath path, IntArray out) {
+        if (!path.isFound()) {
+            return false;
+        }
+        out.add(path.getWaypointX(0), path.getWaypointY(0));
+        for (int segment = 0; segment < path.getSegmentCount(); segment++) {
+            if (!refineSegment(path, segment, out)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Re-read the edited chunk's tiles and rebuild the clusters they belong to
+     */
+    @Override
+    public void chunkChanged(int chunkX, int chunkY) {
+        int chunkSize = grid.getLayer().getChunkSize();
+        int minX = chunkX * chunkSize;
+        int minY = chunkY * chunkSize;
+        int maxX = minX + chunkSize - 1;
+        int maxY = minY + chunkSize - 1;
+
+        lock.writeLock().lock();
+        try {
+            if (!grid.refresh(minX, minY, maxX, maxY)) {
+                return;
+            }
+            rebuild(minX / clusterSize, minY / clusterSize,
+                Math.min(maxX / clusterSize, clustersX - 1), Math.min(maxY / clusterSize, clustersY - 1));
+            revision++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recompute the entrances on every border of the given clusters, then the
+     * intra-cluster costs of those clusters and of the neighbours sharing those borders
+     */
+    private void rebuild(int minCX, int minCY, int maxCX, int maxCY) {
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = Math.max(minCX - 1, 0); cx <= Math.min(maxCX, clustersX - 2); cx++) {
+                rebuildVerticalBorder(cx, cy);
+            }
+        }
+        for (int cy = Math.max(minCY - 1, 0); cy <= Math.min(maxCY, clustersY - 2); cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                rebuildHorizontalBorder(cx, cy);
+            }
+        }
+
+        TileSearch tiles = scratch.get().tiles;
+        for (int cy = Math.max(minCY - 1, 0); cy <= Math.min(maxCY + 1, clustersY - 1); cy++) {
+            for (int cx = Math.max(minCX - 1, 0); cx <= Math.min(maxCX + 1, clustersX - 1); cx++) {
+                boolean insideX = cx >= minCX && cx <= maxCX;
+                boolean insideY = cy >= minCY && cy <= maxCY;
+                // Diagonal neighbours share no border with the rebuilt clusters
+                if (insideX || insideY) {
+                    connectCluster(tiles, cy * clustersX + cx);
+                }
+            }
+        }
+    }
+
+    /**
+     * Entrances between cluster (cx, cy) and (cx + 1, cy)
+     */
+    private void rebuildVerticalBorder(int cx, int cy) {
+        int border = cy * (clustersX - 1) + cx;
+        clearBorder(border);
+        int x = (cx + 1) * clusterSize - 1;
+        int y0 = cy * clusterSize;
+        int y1 = Math.min(y0 + clusterSize, grid.getHeight());
+        int runStart = -1;
+        for (int y = y0; y <= y1; y++) {
+            boolean open = y < y1 && grid.isWalkable(x, y) && grid.isWalkable(x + 1, y);
+            if (open && runStart < 0) {
+                runStart = y;
+            } else if (!open && runStart >= 0) {
+                int runEnd = y - 1;
+                if (runEnd - runStart + 1 >= LONG_ENTRANCE) {
+                    addTransition(border, x, runStart, x + 1, runStart);
+                    addTransition(border, x, runEnd, x + 1, runEnd);
+                } else {
+                    int middle = (runStart + runEnd) / 2;
+                    addTransition(border, x, middle, x + 1, middle);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    /**
+     * Entrances between cluster (cx, cy) and (cx, cy + 1)
+     */
+    private void rebuildHorizontalBorder(int cx, int cy) {
+        int border = verticalBorders + cy * clustersX + cx;
+        clearBorder(border);
+        int y = (cy + 1) * clusterSize - 1;
+        int x0 = cx * clusterSize;
+        int x1 = Math.min(x0 + clusterSize, grid.getWidth());
+        int runStart = -1;
+        for (int x = x0; x <= x1; x++) {
+            boolean open = x < x1 && grid.isWalkable(x, y) && grid.isWalkable(x, y + 1);
+            if (open && runStart < 0) {
+                runStart = x;
+            } else if (!open && runStart >= 0) {
+                int runEnd = x - 1;
+                if (runEnd - runStart + 1 >= LONG_ENTRANCE) {
+                    addTransition(border, runStart, y, runStart, y + 1);
+                    addTransition(border, runEnd, y, runEnd, y + 1);
+                } else {
+                    int middle = (runStart + runEnd) / 2;
+                    addTransition(border, middle, y, middle, y + 1);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    private void addTransition(int border, int ax, int ay, int bx, int by) {
+        int a = addNode(ax, ay);
+        int b = addNode(bx, by);
+        connect(a, b, NavigationGrid.STRAIGHT_COST);
+        borderNodes[border].add(a, b);
+    }
+
+    private void clearBorder(int border) {
+        IntArray nodes = borderNodes[border];
+        for (int i = 0; i < nodes.size; i++) {
+            removeNode(nodes.get(i));
+        }
+        nodes.clear();
+    }
+
+    /**
+     * Replace the edges between the nodes of a cluster with their path costs inside it
+     */
+    private void connectCluster(TileSearch tiles, int cluster) {
+        IntArray nodes = clusterNodes[cluster];
+        for (int i = 0; i < nodes.size; i++) {
+            IntArray edges = nodeEdges[nodes.get(i)];
+            for (int e = edges.size - 2; e >= 0; e -= 2) {
+                if (nodeCluster[edges.get(e)] == cluster) {
+                    edges.removeIndex(e + 1);
+                    edges.removeIndex(e);
+                }
+            }
+        }
+
+        for (int i = 0; i < nodes.size - 1; i++) {
+            int from = nodes.get(i);
+            floodCluster(tiles, cluster, nodeX[from], nodeY[from]);
+            for (int j = i + 1; j < nodes.size; j++) {
+                int to = nodes.get(j);
+                int cost = tiles.getCost(nodeX[to], nodeY[to]);
+                if (cost >= 0) {
+                    connect(from, to, cost);
+                }
+            }
+        }
+    }
+
+    private int addNode(int x, int y) {
+        int node;
+        if (freeNodes.size > 0) {
+            node = freeNodes.pop();
+        } else {
+            if (nodeSlots == nodeX.length) {
+                growNodes(Math.max(64, nodeSlots * 2));
+            }
+            node = nodeSlots++;
+            nodeEdges[node] = new IntArray();
+        }
+        nodeX[node] = x;
+        nodeY[node] = y;
+        nodeCluster[node] = getCluster(x, y);
+        clusterNodes[nodeCluster[node]].add(node);
+        nodeCount++;
+        return node;
+    }
+
+    private void removeNode(int node) {
+        IntArray edges = nodeEdges[node];
+        for (int i = 0; i < edges.size; i += 2) {
+            IntArray back = nodeEdges[edges.get(i)];
+            for (int e = back.size - 2; e >= 0; e -= 2) {
+                if (back.get(e) == node) {
+                    back.removeIndex(e + 1);
+                    back.removeIndex(e);
+                }
+            }
+        }
+        edges.clear();
+        clusterNodes[nodeCluster[node]].removeValue(node);
+        freeNodes.add(node);
+        nodeCount--;
+    }
+
+    private void connect(int a, int b, int cost) {
+        nodeEdges[a].add(b, cost);
+        nodeEdges[b].add(a, cost);
+    }
+
+    private void growNodes(int capacity) {
+        int[] x = new int[capacity];
+        int[] y = new int[capacity];
+        int[] cluster = new int[capacity];
+        IntArray[] edges = new IntArray[capacity];
+        System.arraycopy(nodeX, 0, x, 0, nodeSlots);
+        System.arraycopy(nodeY, 0, y, 0, nodeSlots);
+        System.arraycopy(nodeCluster, 0, cluster, 0, nodeSlots);
+        System.arraycopy(nodeEdges, 0, edges, 0, nodeSlots);
+        nodeX = x;
+        nodeY = y;
+        nodeCluster = cluster;
+        nodeEdges = edges;
+    }
+
+    private void floodCluster(TileSearch tiles, int cluster, int x, int y) {
+        int minX = (cluster % clustersX) * clusterSize;
+        int minY = (cluster / clustersX) * clusterSize;
+        tiles.flood(grid, minX, minY,
+            Math.min(clusterSize, grid.getWidth() - minX), Math.min(clusterSize, grid.getHeight() - minY), x, y);
+    }
+
+    /**
+     * A* restricted to the bounding box of two clusters (the same one, or neighbours)
+     */
+    private int searchInClusters(TileSearch tiles, int clusterA, int clusterB,
+                                 int startX, int startY, int goalX, int goalY) {
+        int ax = clusterA % clustersX;
+        int ay = clusterA / clustersX;
+        int bx = clusterB % clustersX;
+        int by = clusterB / clustersX;
+        int minX = Math.min(ax, bx) * clusterSize;
+        int minY = Math.min(ay, by) * clusterSize;
+        int maxX = Math.min((Math.max(ax, bx) + 1) * clusterSize, grid.getWidth());
+        int maxY = Math.min((Math.max(ay, by) + 1) * clusterSize, grid.getHeight());
+        return tiles.findPath(grid, minX, minY, maxX - minX, maxY - minY, startX, startY, goalX, goalY);
+    }
+
+    private int searchBetween(TileSearch tiles, int startX, int startY, int goalX, int goalY) {
+        return searchInClusters(tiles, getCluster(startX, startY), getCluster(goalX, goalY),
+            startX, startY, goalX, goalY);
+    }
+
+    /**
+     * Cluster index (row-major) of a tile
+     */
+    public int getCluster(int x, int y) {
+        return (y / clusterSize) * clustersX + x / clusterSize;
+    }
+
+    /**
+     * Stop listening for tile edits
+     */
+    public void dispose() {
+        grid.getLayer().removeChangeListener(this);
+    }
+
+    /**
+     * Per-thread search state, sized to the abstract graph and stamped like TileSearch
+     */
+    private static final class Scratch {
+        final TileSearch tiles = new TileSearch();
+        final SearchHeap heap = new SearchHeap();
+        final IntArray chain = new IntArray();
+        int[] cost = new int[0];
+        int[] parent = new int[0];
+        int[] seen = new int[0];
+        int[] closed = new int[0];
+        int[] goalCost = new int[0];
+        int[] goalStamp = new int[0];
+        int stamp;
+
+        void begin(int nodes) {
+            if (cost.length < nodes) {
+                int capacity = Math.max(nodes, cost.length * 2);
+                cost = new int[capacity];
+                parent = new int[capacity];
+                seen = new int[capacity];
+                closed = new int[capacity];
+                goalCost = new int[capacity];
+                goalStamp = new int[capacity];
+                stamp = 0;
+            }
+            stamp++;
+            heap.clear();
+        }
+
+        void open(int node, int nodeCost, int from, int estimate) {
+            cost[node] = nodeCost;
+            parent[node] = from;
+            seen[node] = stamp;
+            heap.push(nodeCost + estimate, node);
+        }
+    }
+
+    // Getters
+    public NavigationGrid getGrid() {
+        return grid;
+    }
+
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    public int getClustersX() {
+        return clustersX;
+    }
+
+    public int getClustersY() {
+        return clustersY;
+    }
+
+    public int getRevision() {
+        return revision;
+    }
+
+    public int getNodeCount() {
+        lock.readLock().lock();
+        try {
+            return nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package in.GameDev.SummerTerrain.navigation;
+
+import in.GameDev.SummerTerrain.collision.CollisionLayer;
+
+/**
+ * Walkable/blocked flag per map tile, derived from a CollisionLayer: a tile is
+ * walkable when no collision shape overlaps it. This is the graph that the
+ * pathfinders search; 8-connected, with diagonal steps only allowed when both
+ * adjacent straight tiles are walkable (no corner cutting).
+ *
+ * Step costs are integers: STRAIGHT_COST per straight step, DIAGONAL_COST per
+ * diagonal one (about 10 * sqrt(2)).
+ */
+public class NavigationGrid {
+
+    public static final int STRAIGHT_COST = 10;
+    public static final int DIAGONAL_COST = 14;
+
+    private final CollisionLayer layer;
+    private final int mask;
+    private final int width;
+    private final int height;
+    private final boolean[] walkable;
+
+    public NavigationGrid(CollisionLayer layer) {
+        this(layer, CollisionLayer.ALL_CATEGORIES);
+    }
+
+    /**
+     * @param mask Only shapes whose category shares a bit with the mask block tiles
+     */
+    public NavigationGrid(CollisionLayer layer, int mask) {
+        this.layer = layer;
+        this.mask = mask;
+        this.width = layer.getMapWidthInTiles();
+        this.height = layer.getMapHeightInTiles();
+        this.walkable = new boolean[width * height];
+        refresh(0, 0, width - 1, height - 1);
+
+        int walkableCount = 0;
+        for (boolean tile : walkable) {
+            if (tile) walkableCount++;
+        }
+        System.out.println("✓ NavigationGrid built: " + walkableCount + " of " + walkable.length + " tiles walkable");
+    }
+
+    /**
+     * Re-read the tiles in [minX, maxX] x [minY, maxY] (inclusive) from the collision layer
+     *
+     * @return true if any tile changed
+     */
+    public boolean refresh(int minX, int minY, int maxX, int maxY) {
+        minX = Math.max(minX, 0);
+        minY = Math.max(minY, 0);
+        maxX = Math.min(maxX, width - 1);
+        maxY = Math.min(maxY, height - 1);
+        float tileWidth = layer.getTileWidth();
+        float tileHeight = layer.getTileHeight();
+
+        boolean changed = false;
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                boolean free = !layer.isRectangleBlocked(x * tileWidth, y * tileHeight, tileWidth, tileHeight, mask);
+                int index = y * width + x;
+                if (walkable[index] != free) {
+                    walkable[index] = free;
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * False outside the map
+     */
+    public boolean isWalkable(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && walkable[y * width + x];
+    }
+
+    /**
+     * Whether a single step from (x, y) by (dx, dy) in -1..1 is allowed
+     */
+    public boolean canStep(int x, int y, int dx, int dy) {
+        if (!isWalkable(x + dx, y + dy)) return false;
+        if (dx != 0 && dy != 0) {
+            return isWalkable(x + dx, y) && isWalkable(x, y + dy);
+        }
+        return true;
+    }
+
+    /**
+     * Tile containing a world X coordinate (not clamped)
+     */
+    public int getTileX(float worldX) {
+        return (int) Math.floor(worldX / layer.getTileWidth());
+    }
+
+    /**
+     * Tile containing a world Y coordinate (not clamped)
+     */
+    public int getTileY(float worldY) {
+        return (int) Math.floor(worldY / layer.getTileHeight());
+    }
+
+    // Getters
+    public CollisionLayer getLayer() {
+        return layer;
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
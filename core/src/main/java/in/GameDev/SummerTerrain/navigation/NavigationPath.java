@@ -0,0 +1,74 @@
+package in.GameDev.SummerTerrain.navigation;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Result of a hierarchical path query: tile waypoints from start to goal,
+ * each consecutive pair inside one cluster or across one cluster border.
+ * The tiles between waypoints are only found when a segment is refined
+ * (HierarchicalPathfinder.refineSegment), typically as the agent reaches it.
+ *
+ * Reusable: queries clear it before filling it.
+ */
+public class NavigationPath {
+
+    // Waypoint tiles as x, y pairs
+    private final IntArray waypoints = new IntArray();
+    private int cost = -1;
+
+    public void clear() {
+        waypoints.clear();
+        cost = -1;
+    }
+
+    void addWaypoint(int x, int y) {
+        int size = waypoints.size;
+        if (size >= 2 && waypoints.get(size - 2) == x && waypoints.get(size - 1) == y) {
+            return;
+        }
+        waypoints.add(x, y);
+    }
+
+    void setCost(int cost) {
+        this.cost = cost;
+    }
+
+    /**
+     * Copy another path's waypoints and cost into this one
+     */
+    public void set(NavigationPath other) {
+        waypoints.clear();
+        waypoints.addAll(other.waypoints);
+        cost = other.cost;
+    }
+
+    public boolean isFound() {
+        return cost >= 0;
+    }
+
+    public int getWaypointCount() {
+        return waypoints.size / 2;
+    }
+
+    /**
+     * Refinable segments: one fewer than the waypoints
+     */
+    public int getSegmentCount() {
+        return Math.max(0, getWaypointCount() - 1);
+    }
+
+    public int getWaypointX(int index) {
+        return waypoints.get(index * 2);
+    }
+
+    public int getWaypointY(int index) {
+        return waypoints.get(index * 2 + 1);
+    }
+
+    /**
+     * Path cost in NavigationGrid step costs, or -1 if no path was found
+     */
+    public int getCost() {
+        return cost;
+    }
+}
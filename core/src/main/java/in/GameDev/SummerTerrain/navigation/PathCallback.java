@@ -0,0 +1,13 @@
+package in.GameDev.SummerTerrain.navigation;
+
+/**
+ * Receives finished path requests. Called on the game thread from
+ * PathRequestService.update, never on a worker.
+ */
+public interface PathCallback {
+
+    /**
+     * @param request Finished request; check isFound() before reading getPath()
+     */
+    void pathReady(PathRequest request);
+}
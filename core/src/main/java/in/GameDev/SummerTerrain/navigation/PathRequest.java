@@ -0,0 +1,83 @@
+package in.GameDev.SummerTerrain.navigation;
+
+/**
+ * One queued path query of a PathRequestService, from a start tile to a goal
+ * tile. Filled in by a worker thread and handed back through its callback on
+ * the game thread; read its results only from the callback.
+ */
+public class PathRequest {
+
+    private final int startX;
+    private final int startY;
+    private final int goalX;
+    private final int goalY;
+    private final PathCallback callback;
+
+    private final NavigationPath path = new NavigationPath();
+    private boolean found;
+    private boolean fromCache;
+    private volatile boolean cancelled;
+
+    PathRequest(int startX, int startY, int goalX, int goalY, PathCallback callback) {
+        this.startX = startX;
+        this.startY = startY;
+        this.goalX = goalX;
+        this.goalY = goalY;
+        this.callback = callback;
+    }
+
+    void complete(boolean found, boolean fromCache) {
+        this.found = found;
+        this.fromCache = fromCache;
+    }
+
+    /**
+     * Skip the search, or stop it at its next slice, and never call the callback
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    // Getters
+    public int getStartX() {
+        return startX;
+    }
+
+    public int getStartY() {
+        return startY;
+    }
+
+    public int getGoalX() {
+        return goalX;
+    }
+
+    public int getGoalY() {
+        return goalY;
+    }
+
+    PathCallback getCallback() {
+        return callback;
+    }
+
+    /**
+     * Waypoints of the result; refine its segments with the service's pathfinder
+     */
+    public NavigationPath getPath() {
+        return path;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    /**
+     * True if the result reused a cached path between the same clusters
+     */
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
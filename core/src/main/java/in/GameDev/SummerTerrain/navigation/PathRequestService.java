@@ -0,0 +1,273 @@
+package in.GameDev.SummerTerrain.navigation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs path requests on background worker threads so a burst of them never
+ * stalls the frame. The game thread calls update() once per frame: it adds
+ * that frame's search time to a budget shared by all workers and calls the
+ * callbacks of the requests finished since the last update.
+ *
+ * Searches are time-sliced: a worker charges the budget after every slice
+ * (at most HierarchicalPathfinder.SLICE_EXPANSIONS abstract nodes, or one
+ * search bounded to a cluster) and waits for the next grant once it is spent,
+ * keeping its search state. Workers overshoot a frame's budget by at most one
+ * slice each, and the overshoot is paid back from the following frames.
+ *
+ * Results are cached per (start cluster, goal cluster) pair, least recently
+ * used first out. A request between the same clusters as a cached path only
+ * reconnects its ends inside their clusters instead of searching again.
+ * Cached paths are dropped when a tile edit changes the pathfinder's graph.
+ */
+public class PathRequestService {
+
+    public static final float DEFAULT_FRAME_BUDGET_MS = 2f;
+    public static final int DEFAULT_CACHE_CAPACITY = 256;
+
+    private final HierarchicalPathfinder pathfinder;
+    private final LinkedBlockingQueue<PathRequest> pending = new LinkedBlockingQueue<>();
+    private final ConcurrentLinkedQueue<PathRequest> finished = new ConcurrentLinkedQueue<>();
+    private final Thread[] workers;
+    private volatile boolean running = true;
+
+    // Search time the workers may still spend; negative while overspent
+    private final Object budgetLock = new Object();
+    private long budgetNanos;
+
+    // (start cluster, goal cluster) -> path, in access order
+    private final Map<Long, CachedPath> cache;
+
+    private final AtomicInteger searches = new AtomicInteger();
+    private final AtomicInteger cacheHits = new AtomicInteger();
+
+    public PathRequestService(HierarchicalPathfinder pathfinder) {
+        this(pathfinder, Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1)),
+            DEFAULT_CACHE_CAPACITY);
+    }
+
+    /**
+     * @param workerCount   Background search threads
+     * @param cacheCapacity Cached cluster pairs; 0 disables the cache
+     */
+    public PathRequestService(HierarchicalPathfinder pathfinder, int workerCount, final int cacheCapacity) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Worker count must be positive, got " + workerCount);
+        }
+        this.pathfinder = pathfinder;
+        this.cache = new LinkedHashMap<Long, CachedPath>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedPath> eldest) {
+                return size() > cacheCapacity;
+            }
+        };
+
+        workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Thread(new Worker(), "PathWorker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        System.out.println("✓ PathRequestService started: " + workerCount + " worker(s), cache of "
+            + cacheCapacity + " paths");
+    }
+
+    /**
+     * Queue a path request between two tiles. Nothing is searched until the
+     * next update() grants a budget.
+     *
+     * @param callback Called on the game thread from update() once the request finished
+     */
+    public PathRequest request(int startX, int startY, int goalX, int goalY, PathCallback callback) {
+        PathRequest request = new PathRequest(startX, startY, goalX, goalY, callback);
+        pending.add(request);
+        return request;
+    }
+
+    /**
+     * Add this frame's search time to the budget and deliver the finished
+     * requests. Call once per frame on the game thread. Time overspent in
+     * earlier frames is paid back first; unspent time carries over for at most
+     * one frame, so an idle spell cannot let a later burst run long.
+     *
+     * @param budgetMillis Search time the workers may spend until the next update
+     */
+    public void update(float budgetMillis) {
+        long grant = (long) (budgetMillis * 1000000f);
+        synchronized (budgetLock) {
+            budgetNanos = Math.min(budgetNanos + grant, 2 * grant);
+            budgetLock.notifyAll();
+        }
+
+        PathRequest request;
+        while ((request = finished.poll()) != null) {
+            if (!request.isCancelled()) {
+                request.getCallback().pathReady(request);
+            }
+        }
+    }
+
+    /**
+     * Takes requests and solves them slice by slice, charging each slice to the shared budget
+     */
+    private final class Worker implements Runnable, SearchSlicer {
+        private PathRequest current;
+        private long sliceStart;
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    current = pending.take();
+                    awaitBudget();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (current.isCancelled()) {
+                    continue;
+                }
+
+                sliceStart = System.nanoTime();
+                try {
+                    solve(current, this);
+                } catch (RuntimeException e) {
+                    System.err.println("⚠️ WARNING: Path request failed: " + e.getMessage());
+                    current.complete(false, false);
+                }
+                charge();
+                finished.add(current);
+            }
+        }
+
+        /**
+         * Charge the slice just run, then wait for budget before the next one
+         */
+        @Override
+        public boolean endSlice() {
+            charge();
+            try {
+                awaitBudget();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            sliceStart = System.nanoTime();
+            return running && !current.isCancelled();
+        }
+
+        private void charge() {
+            long now = System.nanoTime();
+            synchronized (budgetLock) {
+                budgetNanos -= now - sliceStart;
+            }
+            sliceStart = now;
+        }
+
+        private void awaitBudget() throws InterruptedException {
+            synchronized (budgetLock) {
+                while (budgetNanos <= 0) {
+                    budgetLock.wait();
+                }
+            }
+        }
+    }
+
+    private void solve(PathRequest request, SearchSlicer slicer) {
+        int startX = request.getStartX();
+        int startY = request.getStartY();
+        int goalX = request.getGoalX();
+        int goalY = request.getGoalY();
+        NavigationPath path = request.getPath();
+        NavigationGrid grid = pathfinder.getGrid();
+        if (!grid.isWalkable(startX, startY) || !grid.isWalkable(goalX, goalY)) {
+            path.clear();
+            request.complete(false, false);
+            return;
+        }
+
+        int revision = pathfinder.getRevision();
+        Long key = ((long) pathfinder.getCluster(startX, startY) << 32) | pathfinder.getCluster(goalX, goalY);
+        CachedPath cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null && cached.revision == revision) {
+            if (pathfinder.reconnectPath(cached.path, startX, startY, goalX, goalY, path)) {
+                cacheHits.incrementAndGet();
+                request.complete(true, true);
+                return;
+            }
+            // The reconnect searches were a slice of their own
+            if (!slicer.endSlice()) {
+                request.complete(false, false);
+                return;
+            }
+        }
+
+        searches.incrementAndGet();
+        boolean found = pathfinder.findPath(startX, startY, goalX, goalY, path, slicer);
+        request.complete(found, false);
+        // Direct paths inside one cluster have no inner waypoints to reuse
+        if (found && path.getWaypointCount() > 2) {
+            NavigationPath copy = new NavigationPath();
+            copy.set(path);
+            synchronized (cache) {
+                cache.put(key, new CachedPath(copy, revision));
+            }
+        }
+    }
+
+    /**
+     * Stop the workers; queued requests are dropped without callbacks
+     */
+    public void dispose() {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        pending.clear();
+        finished.clear();
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private static final class CachedPath {
+        final NavigationPath path;
+        final int revision;
+
+        CachedPath(NavigationPath path, int revision) {
+            this.path = path;
+            this.revision = revision;
+        }
+    }
+
+    // Getters
+    public HierarchicalPathfinder getPathfinder() {
+        return pathfinder;
+    }
+
+    /**
+     * Requests waiting for a worker
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Requests answered by a full search
+     */
+    public int getSearchCount() {
+        return searches.get();
+    }
+
+    /**
+     * Requests answered from the cache
+     */
+    public int getCacheHits() {
+        return cacheHits.get();
+    }
+}
@@ -0,0 +1,66 @@
+package in.GameDev.SummerTerrain.navigation;
+
+/**
+ * Binary min-heap of (priority, value) pairs packed into longs, for the open
+ * sets of the searches. Decrease-key is done by pushing again; callers skip
+ * values they have already closed when they pop a stale entry.
+ */
+final class SearchHeap {
+
+    private long[] entries = new long[64];
+    private int size;
+
+    void clear() {
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param priority Non-negative
+     * @param value    Non-negative
+     */
+    void push(int priority, int value) {
+        long entry = ((long) priority << 32) | value;
+        if (size == entries.length) {
+            long[] grown = new long[size * 2];
+            System.arraycopy(entries, 0, grown, 0, size);
+            entries = grown;
+        }
+        int i = size++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (entries[up] <= entry) break;
+            entries[i] = entries[up];
+            i = up;
+        }
+        entries[i] = entry;
+    }
+
+    int peekPriority() {
+        return (int) (entries[0] >>> 32);
+    }
+
+    /**
+     * Remove the entry with the lowest priority and return its value
+     */
+    int pop() {
+        long top = entries[0];
+        long last = entries[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && entries[child + 1] < entries[child]) child++;
+            if (entries[child] >= last) break;
+            entries[i] = entries[child];
+            i = child;
+        }
+        if (size > 0) {
+            entries[i] = last;
+        }
+        return (int) top;
+    }
+}
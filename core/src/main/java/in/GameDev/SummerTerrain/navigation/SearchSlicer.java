@@ -0,0 +1,15 @@
+package in.GameDev.SummerTerrain.navigation;
+
+/**
+ * Splits a long HierarchicalPathfinder search into slices, e.g. so it can
+ * wait for the next frame's time budget. Called between slices on the
+ * searching thread with no pathfinder lock held, so tile edits can go ahead;
+ * a search that sees an edit on resuming starts over.
+ */
+public interface SearchSlicer {
+
+    /**
+     * @return true to resume the search, false to give it up (findPath then returns false)
+     */
+    boolean endSlice();
+}
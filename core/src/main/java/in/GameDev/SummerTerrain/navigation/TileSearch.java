@@ -0,0 +1,174 @@
+package in.GameDev.SummerTerrain.navigation;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * A* and Dijkstra over the tiles of one rectangular region of a
+ * NavigationGrid (a cluster, or two neighbouring ones). Arrays are sized for
+ * the largest region seen and reused; a search stamp marks which entries
+ * belong to the current search, so nothing is cleared between searches.
+ * Not thread-safe: one instance per thread.
+ */
+final class TileSearch {
+
+    private static final int[] STEP_X = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] STEP_Y = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private int regionX;
+    private int regionY;
+    private int regionWidth;
+    private int regionHeight;
+
+    // Per region tile
+    private int[] cost = new int[0];
+    private int[] parent = new int[0];
+    private int[] seen = new int[0];
+    private int[] closed = new int[0];
+    private int stamp;
+
+    private final SearchHeap open = new SearchHeap();
+
+    private int expanded;
+
+    private void begin(int x, int y, int width, int height) {
+        regionX = x;
+        regionY = y;
+        regionWidth = width;
+        regionHeight = height;
+        int area = width * height;
+        if (cost.length < area) {
+            cost = new int[area];
+            parent = new int[area];
+            seen = new int[area];
+            closed = new int[area];
+            stamp = 0;
+        }
+        stamp++;
+        open.clear();
+        expanded = 0;
+    }
+
+    /**
+     * A* from start to goal using only tiles inside the region
+     *
+     * @return Path cost, or -1 if the goal cannot be reached inside the region
+     */
+    int findPath(NavigationGrid grid, int x, int y, int width, int height,
+                 int startX, int startY, int goalX, int goalY) {
+        begin(x, y, width, height);
+        if (!contains(startX, startY) || !contains(goalX, goalY)
+            || !grid.isWalkable(startX, startY) || !grid.isWalkable(goalX, goalY)) {
+            return -1;
+        }
+
+        int goal = index(goalX, goalY);
+        visit(index(startX, startY), 0, -1, heuristic(startX, startY, goalX, goalY));
+        while (!open.isEmpty()) {
+            int tile = open.pop();
+            if (closed[tile] == stamp) continue;
+            closed[tile] = stamp;
+            expanded++;
+            if (tile == goal) {
+                return cost[tile];
+            }
+            expandNeighbours(grid, tile, goalX, goalY, true);
+        }
+        return -1;
+    }
+
+    /**
+     * Dijkstra from a tile to every reachable tile of the region; read the
+     * results with getCost
+     */
+    void flood(NavigationGrid grid, int x, int y, int width, int height, int startX, int startY) {
+        begin(x, y, width, height);
+        if (!contains(startX, startY) || !grid.isWalkable(startX, startY)) {
+            return;
+        }
+
+        visit(index(startX, startY), 0, -1, 0);
+        while (!open.isEmpty()) {
+            int tile = open.pop();
+            if (closed[tile] == stamp) continue;
+            closed[tile] = stamp;
+            expanded++;
+            expandNeighbours(grid, tile, 0, 0, false);
+        }
+    }
+
+    private void expandNeighbours(NavigationGrid grid, int tile, int goalX, int goalY, boolean guided) {
+        int tileX = regionX + tile % regionWidth;
+        int tileY = regionY + tile / regionWidth;
+        int tileCost = cost[tile];
+        for (int i = 0; i < STEP_X.length; i++) {
+            int nextX = tileX + STEP_X[i];
+            int nextY = tileY + STEP_Y[i];
+            if (!contains(nextX, nextY) || !grid.canStep(tileX, tileY, STEP_X[i], STEP_Y[i])) {
+                continue;
+            }
+            int next = index(nextX, nextY);
+            if (closed[next] == stamp) continue;
+            int nextCost = tileCost + (i < 4 ? NavigationGrid.STRAIGHT_COST : NavigationGrid.DIAGONAL_COST);
+            if (seen[next] == stamp && cost[next] <= nextCost) continue;
+            visit(next, nextCost, tile, guided ? heuristic(nextX, nextY, goalX, goalY) : 0);
+        }
+    }
+
+    /**
+     * Cost of the cheapest path from the last flood's start, or -1 if unreachable
+     */
+    int getCost(int x, int y) {
+        if (!contains(x, y)) return -1;
+        int tile = index(x, y);
+        return closed[tile] == stamp ? cost[tile] : -1;
+    }
+
+    /**
+     * Append the tiles of the last search's path to a tile, excluding the start,
+     * as x, y pairs
+     */
+    void appendPath(int x, int y, IntArray out) {
+        int first = out.size;
+        for (int tile = index(x, y); parent[tile] >= 0; tile = parent[tile]) {
+            out.add(regionX + tile % regionWidth, regionY + tile / regionWidth);
+        }
+        // Collected backwards: reverse the pairs
+        for (int i = first, j = out.size - 2; i < j; i += 2, j -= 2) {
+            int swapX = out.get(i);
+            int swapY = out.get(i + 1);
+            out.set(i, out.get(j));
+            out.set(i + 1, out.get(j + 1));
+            out.set(j, swapX);
+            out.set(j + 1, swapY);
+        }
+    }
+
+    /**
+     * Octile distance: exact cost on an open grid, so A* stays optimal
+     */
+    static int heuristic(int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x1 - x0);
+        int dy = Math.abs(y1 - y0);
+        return NavigationGrid.STRAIGHT_COST * (dx + dy)
+            + (NavigationGrid.DIAGONAL_COST - 2 * NavigationGrid.STRAIGHT_COST) * Math.min(dx, dy);
+    }
+
+    private boolean contains(int x, int y) {
+        return x >= regionX && y >= regionY && x < regionX + regionWidth && y < regionY + regionHeight;
+    }
+
+    private int index(int x, int y) {
+        return (y - regionY) * regionWidth + (x - regionX);
+    }
+
+    private void visit(int tile, int tileCost, int from, int estimate) {
+        cost[tile] = tileCost;
+        parent[tile] = from;
+        seen[tile] = stamp;
+        open.push(tileCost + estimate, tile);
+    }
+
+    int getExpanded() {
+        return expanded;
+    }
+}
@@ -11,11 +11,17 @@ import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.ScreenUtils;
 import in.GameDev.SummerTerrain.entities.Player;
+import in.GameDev.SummerTerrain.collision.CollisionCache;
 import in.GameDev.SummerTerrain.collision.CollisionLayer;
 import in.GameDev.SummerTerrain.collision.CollisionHandler;
 
 public class GameScreen implements Screen {
 
+    private static final String MAP_PATH = "maps/Main_map.tmx";
+
+    // Precompiled collision shapes, keyed by map content (in the user's home on desktop)
+    private static final String COLLISION_CACHE_DIR = ".SummerTerrain/cache/collision";
+
     // -------------------------------------------------------
     // Reference to main game (for screen switching)
     // -------------------------------------------------------
@@ -48,7 +54,7 @@ public class GameScreen implements Screen {
         System.out.println("=== GameScreen.show() START ===");
 
         // 1️⃣ Load the TMX map
-        map = new TmxMapLoader().load("maps/Main_map.tmx");
+        map = new TmxMapLoader().load(MAP_PATH);
         System.out.println("✓ Map loaded");
 
         // Calculate map dimensions
@@ -77,7 +83,9 @@ public class GameScreen implements Screen {
 
         // 5️⃣ Initialize collision system
         try {
-            collisionLayer  = new CollisionLayer(map, "Base", "Assets");
+            CollisionCache collisionCache = new CollisionCache(
+                Gdx.files.external(COLLISION_CACHE_DIR), Gdx.files.internal(MAP_PATH));
+            collisionLayer  = new CollisionLayer(map, collisionCache, "Base", "Assets");
             collisionHandler = new CollisionHandler(collisionLayer);
         } catch (Exception e) {
             System.err.println("✗ Failed to initialize collision system!");
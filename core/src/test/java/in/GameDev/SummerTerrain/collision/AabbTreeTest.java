@@ -0,0 +1,52 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AabbTreeTest {
+
+    // Slope tile: lower-right half of the cell at (100, 0)
+    private static final float[] SLOPE = {100, 0, 132, 0, 132, 32};
+
+    private AabbTree tree() {
+        Array<Rectangle> rects = new Array<>();
+        rects.add(new Rectangle(0, 0, 32, 32));
+        Array<ConvexShape> polygons = new Array<>();
+        polygons.add(new ConvexShape(SLOPE));
+        return new AabbTree(rects, polygons);
+    }
+
+    @Test
+    public void polygonLeavesUseExactOverlapTest() {
+        AabbTree tree = tree();
+        assertTrue(tree.overlaps(125, 2, 4, 4));
+        // Inside the slope's bounds but above the diagonal
+        assertFalse(tree.overlaps(101, 26, 4, 4));
+
+        IntArray found = new IntArray();
+        assertEquals(1, tree.query(90, 0, 50, 40, found));
+        assertEquals(1, found.get(0));
+    }
+
+    @Test
+    public void polygonLeavesUseExactContainsTest() {
+        AabbTree tree = tree();
+        assertTrue(tree.contains(130, 1));
+        assertFalse(tree.contains(102, 30));
+    }
+
+    @Test
+    public void raycastStopsAtPolygonNotItsBounds() {
+        AabbTree tree = tree();
+        SweepResult result = new SweepResult();
+        // Horizontal ray at y = 16 enters the bounds at x = 100 but the slope at x = 116
+        assertTrue(tree.raycast(50, 16, 150, 16, result));
+        assertEquals(0.66f, result.time, 0.01f);
+    }
+}
@@ -0,0 +1,117 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.objects.PolygonMapObject;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.Vector2;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class CollisionHandlerAllocationTest {
+
+    private static final int MAP_SIZE = 40;
+    private static final int TILE_SIZE = 32;
+    private static final int WARMUP_CALLS = 50000;
+    private static final int MEASURED_CALLS = 20000;
+
+    // A float[2] per call would be about 24 bytes; allow a few objects in total
+    private static final long MAX_ALLOCATED_BYTES = 1024;
+
+    private com.sun.management.ThreadMXBean threads;
+    private CollisionHandler handler;
+    private CollisionQueryContext context;
+    private final Vector2 out = new Vector2();
+
+    @Before
+    public void setUp() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        handler = new CollisionHandler(new CollisionLayer(createMap(), "Walls"));
+        context = handler.createQueryContext();
+    }
+
+    @Test
+    public void separatedMovementDoesNotAllocate() {
+        assertAllocationFree();
+    }
+
+    @Test
+    public void sweptMovementDoesNotAllocate() {
+        handler.setSweptCollision(true);
+        assertAllocationFree();
+    }
+
+    private void assertAllocationFree() {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            move(i);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            move(i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue("Allocated " + allocated + " bytes over " + MEASURED_CALLS + " calls",
+            allocated <= MAX_ALLOCATED_BYTES);
+    }
+
+    /**
+     * Walk a box along a loop through the map so calls slide along walls and
+     * slopes and the context regathers shapes as the box moves on
+     */
+    private void move(int step) {
+        float angle = (step % 3600) * (float) (Math.PI / 1800);
+        float x = MAP_SIZE * TILE_SIZE * (0.5f + 0.35f * (float) Math.cos(angle));
+        float y = MAP_SIZE * TILE_SIZE * (0.5f + 0.35f * (float) Math.sin(angle));
+        handler.getAllowedMovement(context, x, y, x + 6, y - 4, 20, 20, out);
+    }
+
+    /**
+     * Map with a solid tile and a slope tile scattered over a "Walls" layer
+     */
+    private static TiledMap createMap() {
+        StaticTiledMapTile solid = new StaticTiledMapTile((TextureRegion) null);
+        solid.setId(1);
+        solid.getObjects().add(new RectangleMapObject(0, 0, TILE_SIZE, TILE_SIZE));
+        StaticTiledMapTile slope = new StaticTiledMapTile((TextureRegion) null);
+        slope.setId(2);
+        slope.getObjects().add(new PolygonMapObject(new float[]{0, 0, TILE_SIZE, 0, TILE_SIZE, TILE_SIZE}));
+
+        TiledMapTileSet tileSet = new TiledMapTileSet();
+        tileSet.putTile(1, solid);
+        tileSet.putTile(2, slope);
+
+        TiledMapTileLayer walls = new TiledMapTileLayer(MAP_SIZE, MAP_SIZE, TILE_SIZE, TILE_SIZE);
+        walls.setName("Walls");
+        for (int x = 0; x < MAP_SIZE; x++) {
+            for (int y = 0; y < MAP_SIZE; y++) {
+                int hash = (x * 7 + y * 13) % 11;
+                if (hash == 0) {
+                    walls.setCell(x, y, new TiledMapTileLayer.Cell().setTile(solid));
+                } else if (hash == 5) {
+                    walls.setCell(x, y, new TiledMapTileLayer.Cell().setTile(slope));
+                }
+            }
+        }
+
+        TiledMap map = new TiledMap();
+        map.getTileSets().addTileSet(tileSet);
+        map.getLayers().add(walls);
+        return map;
+    }
+}
@@ -0,0 +1,58 @@
+package in.GameDev.SummerTerrain.collision;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class RectangleMergerTest {
+
+    private static final float TOLERANCE = 0.125f;
+
+    @Test
+    public void mergesAbuttingTilesWithinTolerance() {
+        Array<Rectangle> merged = RectangleMerger.merge(rects(
+            new Rectangle(0, 0, 32, 32),
+            new Rectangle(32, 0, 31.9f, 32),
+            new Rectangle(64, 0.1f, 32, 31.9f)), TOLERANCE);
+
+        assertEquals(1, merged.size);
+        assertEquals(0, merged.first().x, 0.001f);
+        assertEquals(96, merged.first().x + merged.first().width, 0.001f);
+    }
+
+    @Test
+    public void doesNotBridgeGapInNearRowBand() {
+        Array<Rectangle> merged = RectangleMerger.merge(rects(
+            new Rectangle(0, 0, 32, 32),
+            new Rectangle(-100, 0.1f, 32, 31.9f)), TOLERANCE);
+
+        assertEquals(2, merged.size);
+        assertFalse("gap between the rectangles became solid", covers(merged, -50, 16));
+    }
+
+    @Test
+    public void doesNotBridgeGapInNearColumnBand() {
+        Array<Rectangle> merged = RectangleMerger.merge(rects(
+            new Rectangle(0, 0, 32, 32),
+            new Rectangle(0.1f, -100, 31.9f, 32)), TOLERANCE);
+
+        assertEquals(2, merged.size);
+        assertFalse("gap between the rectangles became solid", covers(merged, 16, -50));
+    }
+
+    private static Array<Rectangle> rects(Rectangle... rects) {
+        return new Array<>(rects);
+    }
+
+    private static boolean covers(Array<Rectangle> rects, float x, float y) {
+        for (Rectangle rect : rects) {
+            if (x > rect.x && x < rect.x + rect.width && y > rect.y && y < rect.y + rect.height) {
+                return true;
+            }
+        }
+        return false;
+    }
+}